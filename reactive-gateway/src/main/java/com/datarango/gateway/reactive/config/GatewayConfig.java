@@ -0,0 +1,45 @@
+package com.datarango.gateway.reactive.config;
+
+import com.datarango.gateway.accesslog.AccessLogProperties;
+import com.datarango.gateway.accesslog.AccessLogWriter;
+import com.datarango.gateway.ratelimit.RateLimitPolicies;
+import com.datarango.gateway.ratelimit.RateLimitProperties;
+import com.datarango.gateway.security.JwtVerifier;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+
+@Configuration
+@EnableConfigurationProperties({ RateLimitProperties.class, AccessLogProperties.class })
+public class GatewayConfig {
+
+    @Bean
+    public JwtVerifier jwtVerifier(@Value("${jwt.secret}") String jwtSecret,
+            @Value("${jwt.cache.max-size:10000}") long maxCacheSize,
+            @Value("${jwt.cache.max-ttl-seconds:300}") long maxCacheTtlSeconds) {
+        return new JwtVerifier(jwtSecret, maxCacheSize, maxCacheTtlSeconds);
+    }
+
+    @Bean
+    public RateLimitPolicies rateLimitPolicies(RateLimitProperties properties) {
+        return new RateLimitPolicies(properties);
+    }
+
+    @Bean
+    public AccessLogWriter accessLogWriter(AccessLogProperties properties, MeterRegistry meterRegistry)
+            throws IOException {
+        return new AccessLogWriter(properties, meterRegistry);
+    }
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder() {
+        return WebClient.builder();
+    }
+}
@@ -0,0 +1,85 @@
+package com.datarango.gateway.reactive.config;
+
+import com.datarango.gateway.reactive.filter.BearerTokenAuthenticationConverter;
+import com.datarango.gateway.security.JwtVerifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Configuration
+@EnableWebFluxSecurity
+public class SecurityConfig {
+
+        @Value("${cors.allowed-origins:http://localhost:3000,http://localhost:8080}")
+        private String allowedOrigins;
+
+        @Bean
+        public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http, JwtVerifier jwtVerifier) {
+                // The converter only yields verified tokens, so the manager has nothing left to check
+                ReactiveAuthenticationManager passThrough = Mono::just;
+                AuthenticationWebFilter bearerFilter = new AuthenticationWebFilter(passThrough);
+                bearerFilter.setServerAuthenticationConverter(new BearerTokenAuthenticationConverter(jwtVerifier));
+
+                return http
+                                .cors(Customizer.withDefaults())
+                                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                                .exceptionHandling(exceptions -> exceptions
+                                                .authenticationEntryPoint(
+                                                                new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+                                .authorizeExchange(auth -> auth
+                                                .pathMatchers("/", "/health", "/health/**").permitAll()
+                                                .pathMatchers("/actuator/**").permitAll()
+                                                .pathMatchers("/api/users/auth/**").permitAll()
+                                                .pathMatchers("/api/users/login/**",
+                                                                "/api/users/oauth2/authorization/**")
+                                                .permitAll()
+                                                .anyExchange().authenticated())
+                                .addFilterAt(bearerFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                                .build();
+        }
+
+        @Bean
+        public CorsConfigurationSource corsConfigurationSource() {
+                CorsConfiguration configuration = new CorsConfiguration();
+                configuration.setAllowedOrigins(Arrays.asList(allowedOrigins.split(",")));
+                configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
+                configuration.setAllowedHeaders(Arrays.asList(
+                                "Authorization",
+                                "Content-Type",
+                                "X-Requested-With",
+                                "X-Correlation-ID",
+                                "Accept"));
+                configuration.setExposedHeaders(List.of(
+                                "X-Correlation-ID",
+                                "X-Total-Count",
+                                "X-RateLimit-Limit",
+                                "X-RateLimit-Remaining",
+                                "Retry-After"));
+                configuration.setAllowCredentials(true);
+                configuration.setMaxAge(3600L);
+
+                UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+                source.registerCorsConfiguration("/**", configuration);
+                return source;
+        }
+}
@@ -0,0 +1,22 @@
+package com.datarango.gateway.reactive.controller;
+
+import com.datarango.gateway.dto.ApiResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+public class HealthController {
+
+    @GetMapping("/")
+    public ApiResponse<Object> welcome() {
+        return ApiResponse.success("Welcome to the Datarango API Gateway", null);
+    }
+
+    @GetMapping("/health")
+    public ResponseEntity<Map<String, String>> health() {
+        return ResponseEntity.ok(Map.of("status", "UP"));
+    }
+}
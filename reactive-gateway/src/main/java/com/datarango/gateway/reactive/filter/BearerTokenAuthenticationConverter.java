@@ -0,0 +1,45 @@
+package com.datarango.gateway.reactive.filter;
+
+import com.datarango.gateway.security.JwtVerifier;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Verifies the bearer token once per exchange and keeps the claims as an
+ * exchange attribute for the rate limit filter. HMAC verification is CPU-only
+ * and cached, so it runs inline on the event loop.
+ */
+@RequiredArgsConstructor
+public class BearerTokenAuthenticationConverter implements ServerAuthenticationConverter {
+
+    public static final String CLAIMS_ATTRIBUTE = BearerTokenAuthenticationConverter.class.getName() + ".claims";
+
+    private final JwtVerifier jwtVerifier;
+
+    @Override
+    public Mono<Authentication> convert(ServerWebExchange exchange) {
+        String token = JwtVerifier.bearerToken(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+        if (token == null) {
+            return Mono.empty();
+        }
+
+        Claims claims = jwtVerifier.verify(token);
+        if (claims == null) {
+            return Mono.empty();
+        }
+
+        exchange.getAttributes().put(CLAIMS_ATTRIBUTE, claims);
+        String principal = claims.getSubject() != null ? claims.getSubject() : "bearer-user";
+        return Mono.just(UsernamePasswordAuthenticationToken.authenticated(principal, null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+}
@@ -0,0 +1,86 @@
+package com.datarango.gateway.reactive.filter;
+
+import com.datarango.gateway.accesslog.AccessLogWriter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Publishes one access log record per exchange to the shared
+ * {@link AccessLogWriter} ring buffer, so nothing is formatted or written on
+ * the event loop.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LoggingWebFilter implements WebFilter {
+
+    private final AccessLogWriter accessLog;
+    private final List<String> excludedPaths;
+    private final List<String> excludedPrefixes;
+
+    public LoggingWebFilter(AccessLogWriter accessLog) {
+        this.accessLog = accessLog;
+        List<String> excludes = accessLog.getProperties().getExcludePaths();
+        this.excludedPaths = excludes.stream().filter(path -> !path.endsWith("/**")).toList();
+        this.excludedPrefixes = excludes.stream().filter(path -> path.endsWith("/**"))
+                .map(path -> path.substring(0, path.length() - 3)).toList();
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        if (!accessLog.isEnabled() || isExcluded(path)) {
+            return chain.filter(exchange);
+        }
+
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            long duration = System.nanoTime() - start;
+            HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+            int status = statusCode != null ? statusCode.value() : 200;
+            if (status >= 500 || sampled()) {
+                Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                InetSocketAddress remoteAddress = request.getRemoteAddress();
+                accessLog.publish(timestamp, request.getMethod().name(), path,
+                        route != null ? route.getId() : null,
+                        remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : "unknown",
+                        status, duration);
+            }
+        });
+    }
+
+    private boolean sampled() {
+        double rate = accessLog.getProperties().getSampleRate();
+        return rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private boolean isExcluded(String path) {
+        for (String excluded : excludedPaths) {
+            if (excluded.equals(path)) {
+                return true;
+            }
+        }
+        for (String prefix : excludedPrefixes) {
+            if (path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,90 @@
+package com.datarango.gateway.reactive.filter;
+
+import com.datarango.gateway.ratelimit.RateLimitDecision;
+import com.datarango.gateway.ratelimit.RateLimitPolicies;
+import com.datarango.gateway.ratelimit.RateLimitPolicy;
+import com.datarango.gateway.reactive.ratelimit.ReactiveRedisRateLimiter;
+import com.datarango.gateway.reactive.service.ReactiveSubscriptionService;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Reactive equivalent of the servlet RateLimitFilter. Applies to routed
+ * requests only, which are the /api/* prefixes.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitGlobalFilter implements GlobalFilter, Ordered {
+
+    private static final byte[] RATE_LIMITED_BODY = "{\"error\":\"Rate limit exceeded\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final ReactiveSubscriptionService subscriptionService;
+    private final ReactiveRedisRateLimiter rateLimiter;
+    private final RateLimitPolicies rateLimitPolicies;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Claims claims = exchange.getAttribute(BearerTokenAuthenticationConverter.CLAIMS_ATTRIBUTE);
+        String userId = claims != null ? claims.getSubject() : null;
+        Mono<Boolean> subscribed = userId != null ? subscriptionService.hasActiveSubscription(userId)
+                : Mono.just(false);
+
+        return subscribed.flatMap(active -> {
+            if (active) {
+                return chain.filter(exchange);
+            }
+
+            ServerHttpRequest request = exchange.getRequest();
+            RateLimitPolicy policy = rateLimitPolicies.resolve(request.getPath().value());
+            return rateLimiter.tryAcquire(getClientIp(request), policy)
+                    .map(Optional::of)
+                    // Redis unavailable - fail open and allow request through
+                    .onErrorResume(e -> Mono.just(Optional.empty()))
+                    .flatMap(decision -> decision.isPresent() ? apply(decision.get(), exchange, chain)
+                            : chain.filter(exchange));
+        });
+    }
+
+    private Mono<Void> apply(RateLimitDecision decision, ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().set("X-RateLimit-Limit", String.valueOf(decision.limit()));
+        response.getHeaders().set("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+        if (decision.allowed()) {
+            return chain.filter(exchange);
+        }
+
+        response.getHeaders().set("Retry-After", String.valueOf(decision.retryAfterSeconds()));
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(RATE_LIMITED_BODY)));
+    }
+
+    private String getClientIp(ServerHttpRequest request) {
+        String xForwardedFor = request.getHeaders().getFirst("X-Forwarded-For");
+        if (xForwardedFor != null) {
+            return xForwardedFor.split(",")[0];
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : "unknown";
+    }
+
+    @Override
+    public int getOrder() {
+        return 1;
+    }
+}
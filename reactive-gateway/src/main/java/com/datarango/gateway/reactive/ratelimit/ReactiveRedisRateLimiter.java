@@ -0,0 +1,85 @@
+package com.datarango.gateway.reactive.ratelimit;
+
+import com.datarango.gateway.ratelimit.RateLimitAlgorithm;
+import com.datarango.gateway.ratelimit.RateLimitDecision;
+import com.datarango.gateway.ratelimit.RateLimitPolicy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of the servlet gateway's RedisRateLimiter. Runs the
+ * same Lua scripts through the reactive Lettuce connection.
+ */
+@Component
+@Slf4j
+public class ReactiveRedisRateLimiter {
+
+    @SuppressWarnings("rawtypes")
+    private final Map<RateLimitAlgorithm, RedisScript<List>> scripts = new EnumMap<>(RateLimitAlgorithm.class);
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    public ReactiveRedisRateLimiter(ReactiveStringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        for (RateLimitAlgorithm algorithm : RateLimitAlgorithm.values()) {
+            DefaultRedisScript<List> script = new DefaultRedisScript<>();
+            script.setLocation(new ClassPathResource(algorithm.getScriptLocation()));
+            script.setResultType(List.class);
+            scripts.put(algorithm, script);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadScripts() {
+        Flux.fromIterable(scripts.entrySet())
+                .flatMap(entry -> redisTemplate.execute(connection -> connection.scriptingCommands()
+                        .scriptLoad(ByteBuffer.wrap(entry.getValue().getScriptAsString()
+                                .getBytes(StandardCharsets.UTF_8))))
+                        .doOnNext(sha -> log.info("Loaded {} rate limit script {}", entry.getKey(), sha)))
+                .onErrorResume(e -> {
+                    log.warn("Could not preload rate limit scripts, they will be sent on first use: {}",
+                            e.getMessage());
+                    return Mono.empty();
+                })
+                .subscribe();
+    }
+
+    public Mono<RateLimitDecision> tryAcquire(String key, RateLimitPolicy policy) {
+        RateLimitAlgorithm algorithm = policy.algorithm();
+        String redisKey = "rate_limit:" + algorithm.getKeyPrefix() + ":" + policy.name() + ":" + key;
+        int limit = algorithm == RateLimitAlgorithm.TOKEN_BUCKET ? policy.burst() : policy.limit();
+
+        return redisTemplate.execute(scripts.get(algorithm), List.of(redisKey),
+                List.of(String.valueOf(policy.limit()),
+                        String.valueOf(policy.window().toMillis()),
+                        String.valueOf(policy.burst())))
+                .collectList()
+                .map(items -> {
+                    // Depending on the driver the multi-bulk reply arrives as one list or as its elements
+                    List<?> result = items.size() == 1 && items.get(0) instanceof List<?> nested ? nested : items;
+                    if (result.size() < 3) {
+                        throw new IllegalStateException("Unexpected rate limit script result: " + result);
+                    }
+                    return asLong(result.get(0)) == 1
+                            ? RateLimitDecision.allow(limit, asLong(result.get(1)))
+                            : RateLimitDecision.reject(limit, asLong(result.get(2)));
+                });
+    }
+
+    private static long asLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value));
+    }
+}
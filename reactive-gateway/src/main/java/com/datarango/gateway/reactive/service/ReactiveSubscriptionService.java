@@ -0,0 +1,115 @@
+package com.datarango.gateway.reactive.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking subscription check: a Caffeine near-cache whose loads are
+ * Reactor pipelines over the shared Redis cache and user-service. Concurrent
+ * misses for one user share the same in-flight future.
+ */
+@Service
+@Slf4j
+public class ReactiveSubscriptionService {
+
+    private static final int ACTIVE_TTL_SECONDS = 300;
+    private static final int INACTIVE_TTL_SECONDS = 60;
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT = new ParameterizedTypeReference<>() {
+    };
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final WebClient userService;
+    private final Duration lookupTimeout;
+    private final AsyncLoadingCache<String, Boolean> nearCache;
+
+    public ReactiveSubscriptionService(ReactiveStringRedisTemplate redisTemplate,
+            WebClient.Builder loadBalancedWebClientBuilder,
+            @Value("${subscription.cache.max-size:50000}") long maxSize,
+            @Value("${subscription.cache.refresh-after-seconds:45}") long refreshAfterSeconds,
+            @Value("${subscription.cache.lookup-timeout-millis:5000}") long lookupTimeoutMillis) {
+        this.redisTemplate = redisTemplate;
+        this.userService = loadBalancedWebClientBuilder.baseUrl("http://user-service").build();
+        this.lookupTimeout = Duration.ofMillis(lookupTimeoutMillis);
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(String userId, Boolean active, long currentTime) {
+                        return ttlNanos(active);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String userId, Boolean active, long currentTime,
+                            long currentDuration) {
+                        return ttlNanos(active);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String userId, Boolean active, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .refreshAfterWrite(Duration.ofSeconds(refreshAfterSeconds))
+                .buildAsync((userId, executor) -> load(userId).toFuture());
+    }
+
+    public Mono<Boolean> hasActiveSubscription(String userId) {
+        // Cancellation must not cancel the shared future other callers are waiting on
+        return Mono.fromFuture(nearCache.get(userId), true)
+                .timeout(lookupTimeout)
+                .onErrorResume(e -> {
+                    log.debug("Subscription lookup for {} failed: {}", userId, e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    private Mono<Boolean> load(String userId) {
+        String cacheKey = "subscription:active:" + userId;
+        return redisTemplate.opsForValue().get(cacheKey)
+                // Redis unavailable - proceed without cache
+                .onErrorResume(e -> Mono.empty())
+                .filter(cached -> "true".equals(cached) || "false".equals(cached))
+                .map(Boolean::parseBoolean)
+                .switchIfEmpty(Mono.defer(() -> fetchFromUserService(userId)
+                        .flatMap(active -> cacheSubscriptionStatus(cacheKey, active).thenReturn(active))));
+    }
+
+    private Mono<Boolean> fetchFromUserService(String userId) {
+        return userService.get().uri("/users/{id}", userId)
+                .retrieve()
+                .bodyToMono(JSON_OBJECT)
+                .mapNotNull(user -> (String) user.get("subscriptionId"))
+                .flatMap(subscriptionId -> userService.get().uri("/users/subscriptions/{id}", subscriptionId)
+                        .retrieve()
+                        .bodyToMono(JSON_OBJECT))
+                .map(subscription -> {
+                    String expiryStr = (String) subscription.get("expiryDate");
+                    return expiryStr != null && LocalDateTime.parse(expiryStr).isAfter(LocalDateTime.now());
+                })
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<Boolean> cacheSubscriptionStatus(String cacheKey, boolean status) {
+        Duration ttl = Duration.ofSeconds(status ? ACTIVE_TTL_SECONDS : INACTIVE_TTL_SECONDS);
+        return redisTemplate.opsForValue().set(cacheKey, String.valueOf(status), ttl)
+                .onErrorResume(e -> Mono.just(false));
+    }
+
+    private static long ttlNanos(Boolean active) {
+        return TimeUnit.SECONDS.toNanos(Boolean.TRUE.equals(active) ? ACTIVE_TTL_SECONDS : INACTIVE_TTL_SECONDS);
+    }
+}
@@ -0,0 +1,126 @@
+package com.datarango.gateway.reactive;
+
+import com.datarango.gateway.ratelimit.RateLimitDecision;
+import com.datarango.gateway.reactive.ratelimit.ReactiveRedisRateLimiter;
+import com.datarango.gateway.reactive.service.ReactiveSubscriptionService;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"eureka.client.enabled=false",
+		"gateway.access-log.enabled=false" })
+class ReactiveGatewayTest {
+
+	private static final String SECRET = "ReactiveGatewayTestSecretThatIsAtLeast256BitsLongForHS256";
+	private static final HttpServer upstream = startUpstream();
+
+	@Autowired
+	private WebTestClient client;
+
+	@MockitoBean
+	private ReactiveRedisRateLimiter rateLimiter;
+
+	@MockitoBean
+	private ReactiveSubscriptionService subscriptionService;
+
+	@DynamicPropertySource
+	static void gatewayProperties(DynamicPropertyRegistry registry) {
+		registry.add("jwt.secret", () -> SECRET);
+		// Lists bind from one property source, so the route is redefined whole
+		registry.add("spring.cloud.gateway.routes[0].id", () -> "user-service");
+		registry.add("spring.cloud.gateway.routes[0].uri",
+				() -> "http://127.0.0.1:" + upstream.getAddress().getPort());
+		registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/api/users/**");
+		registry.add("spring.cloud.gateway.routes[0].filters[0]", () -> "StripPrefix=2");
+	}
+
+	@BeforeEach
+	void setUp() {
+		when(subscriptionService.hasActiveSubscription(anyString())).thenReturn(Mono.just(false));
+	}
+
+	@AfterAll
+	static void stopUpstream() {
+		upstream.stop(0);
+	}
+
+	@Test
+	void rejectsRequestsWithoutAToken() {
+		client.get().uri("/api/users/profile")
+				.exchange()
+				.expectStatus().isUnauthorized();
+	}
+
+	@Test
+	void routesAuthenticatedRequestsUpstream() {
+		when(rateLimiter.tryAcquire(anyString(), any())).thenReturn(Mono.just(RateLimitDecision.allow(60, 59)));
+
+		client.get().uri("/api/users/profile")
+				.headers(headers -> headers.setBearerAuth(token()))
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals("X-RateLimit-Remaining", "59")
+				.expectBody(String.class).isEqualTo("{\"path\":\"/profile\"}");
+	}
+
+	@Test
+	void answers429WhenTheLimiterRejects() {
+		when(rateLimiter.tryAcquire(anyString(), any())).thenReturn(Mono.just(RateLimitDecision.reject(60, 5000)));
+
+		client.get().uri("/api/users/profile")
+				.headers(headers -> headers.setBearerAuth(token()))
+				.exchange()
+				.expectStatus().isEqualTo(429)
+				.expectHeader().valueEquals("Retry-After", "5")
+				.expectBody(String.class).isEqualTo("{\"error\":\"Rate limit exceeded\"}");
+	}
+
+	private static String token() {
+		return Jwts.builder()
+				.setSubject("reactive-user")
+				.setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+
+	// Echoes the path the gateway forwarded, after StripPrefix
+	private static HttpServer startUpstream() {
+		try {
+			HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+			server.createContext("/", exchange -> {
+				byte[] body = ("{\"path\":\"" + exchange.getRequestURI().getPath() + "\"}")
+						.getBytes(StandardCharsets.UTF_8);
+				exchange.getResponseHeaders().add("Content-Type", "application/json");
+				exchange.sendResponseHeaders(200, body.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(body);
+				}
+			});
+			server.start();
+			return server;
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package com.datarango.gateway.accesslog;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.access-log")
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+    // stdout or file
+    private String output = "stdout";
+    private String file = "logs/access.log";
+    // Ring buffer slots, rounded up to a power of two
+    private int capacity = 8192;
+    private int batchSize = 256;
+    private long flushIntervalMillis = 200;
+    // Fraction of requests logged; 5xx responses are always logged
+    private double sampleRate = 1.0;
+    // Exact paths, or prefixes when ending in /**
+    private List<String> excludePaths = new ArrayList<>(List.of("/health", "/actuator/**"));
+}
@@ -0,0 +1,22 @@
+package com.datarango.gateway.accesslog;
+
+/**
+ * Mutable ring buffer slot. Slots are allocated once and overwritten in place.
+ */
+final class AccessLogRecord {
+
+    long timestampMillis;
+    String method;
+    String path;
+    String route;
+    String clientIp;
+    int status;
+    long durationNanos;
+
+    void clear() {
+        method = null;
+        path = null;
+        route = null;
+        clientIp = null;
+    }
+}
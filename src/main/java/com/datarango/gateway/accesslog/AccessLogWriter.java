@@ -0,0 +1,238 @@
+package com.datarango.gateway.accesslog;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Access log pipeline: request threads claim a preallocated slot in a bounded
+ * multi-producer ring (each slot carries a sequence number, so publishing is
+ * one CAS and one ordered store), and a single writer thread drains it in
+ * batches as JSON lines. When the ring is full the record is dropped and
+ * counted rather than blocking the request.
+ */
+@Component
+@EnableConfigurationProperties(AccessLogProperties.class)
+@Slf4j
+public class AccessLogWriter implements DisposableBean {
+
+    private final AccessLogProperties properties;
+    private final AccessLogRecord[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final StringBuilder line = new StringBuilder(256);
+    private char[] lineChars = new char[256];
+    private final Writer out;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public AccessLogWriter(AccessLogProperties properties, MeterRegistry meterRegistry) throws IOException {
+        this.properties = properties;
+        int capacity = Integer.highestOneBit(Math.max(2, properties.getCapacity() - 1)) << 1;
+        this.slots = new AccessLogRecord[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new AccessLogRecord();
+            sequences.set(i, i);
+        }
+
+        this.out = openOutput(properties);
+        FunctionCounter.builder("gateway.access_log.dropped", dropped, LongAdder::sum)
+                .description("Access log records dropped because the ring buffer was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.access_log.written", written, LongAdder::sum)
+                .register(meterRegistry);
+
+        this.writerThread = new Thread(this::drainLoop, "access-log-writer");
+        this.writerThread.setDaemon(true);
+        if (properties.isEnabled()) {
+            this.writerThread.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public AccessLogProperties getProperties() {
+        return properties;
+    }
+
+    /**
+     * Publishes one request. Never blocks; returns false if the record was dropped.
+     */
+    public boolean publish(long timestampMillis, String method, String path, String route, String clientIp,
+            int status, long durationNanos) {
+        long position;
+        while (true) {
+            position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                dropped.increment();
+                return false;
+            }
+        }
+
+        int index = (int) (position & mask);
+        AccessLogRecord record = slots[index];
+        record.timestampMillis = timestampMillis;
+        record.method = method;
+        record.path = path;
+        record.route = route;
+        record.clientIp = clientIp;
+        record.status = status;
+        record.durationNanos = durationNanos;
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    long getDropped() {
+        return dropped.sum();
+    }
+
+    private void drainLoop() {
+        long parkNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMillis());
+        while (running) {
+            int drained = drainBatch();
+            if (drained == 0) {
+                LockSupport.parkNanos(parkNanos);
+            }
+        }
+        while (drainBatch() > 0) {
+            // Flush what was published before shutdown
+        }
+    }
+
+    /**
+     * Writes up to batchSize records and flushes once. Only called from the
+     * writer thread (or after it has stopped).
+     */
+    int drainBatch() {
+        int count = 0;
+        try {
+            while (count < properties.getBatchSize()) {
+                int index = (int) (head & mask);
+                if (sequences.get(index) != head + 1) {
+                    break;
+                }
+                AccessLogRecord record = slots[index];
+                format(record);
+                if (lineChars.length < line.length()) {
+                    lineChars = new char[line.length() * 2];
+                }
+                line.getChars(0, line.length(), lineChars, 0);
+                out.write(lineChars, 0, line.length());
+                record.clear();
+                sequences.lazySet(index, head + slots.length);
+                head++;
+                count++;
+            }
+            if (count > 0) {
+                out.flush();
+                written.add(count);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write access log: {}", e.getMessage());
+        }
+        return count;
+    }
+
+    private void format(AccessLogRecord record) {
+        line.setLength(0);
+        line.append("{\"ts\":\"").append(Instant.ofEpochMilli(record.timestampMillis)).append('"');
+        line.append(",\"method\":");
+        appendString(record.method);
+        line.append(",\"path\":");
+        appendString(record.path);
+        line.append(",\"route\":");
+        appendString(record.route);
+        line.append(",\"status\":").append(record.status);
+        line.append(",\"duration_us\":").append(record.durationNanos / 1000);
+        line.append(",\"client_ip\":");
+        appendString(record.clientIp);
+        line.append("}\n");
+    }
+
+    private void appendString(String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+
+    private static Writer openOutput(AccessLogProperties properties) throws IOException {
+        if ("file".equalsIgnoreCase(properties.getOutput())) {
+            Path path = Path.of(properties.getFile());
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path.toFile(), true),
+                    StandardCharsets.UTF_8), 64 * 1024);
+        }
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out),
+                StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        running = false;
+        if (writerThread.isAlive()) {
+            LockSupport.unpark(writerThread);
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        if ("file".equalsIgnoreCase(properties.getOutput())) {
+            out.close();
+        } else {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.datarango.gateway.batch;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.batch")
+public class BatchProperties {
+
+    private boolean enabled = true;
+    private int maxRequests = 20;
+    private long defaultTimeoutMillis = 5000;
+    private long maxTimeoutMillis = 30000;
+
+    // Headers a sub-request may set itself; everything else comes from the batch
+    // request, so credentials and the correlation ID cannot be swapped per item
+    private List<String> itemHeaders = new ArrayList<>(List.of("Accept", "Accept-Language", "Content-Type",
+            "If-Match", "If-None-Match", "If-Modified-Since", "If-Unmodified-Since", "Prefer"));
+}
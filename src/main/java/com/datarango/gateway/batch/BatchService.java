@@ -0,0 +1,252 @@
+package com.datarango.gateway.batch;
+
+import com.datarango.gateway.dto.BatchRequest;
+import com.datarango.gateway.dto.BatchResult;
+import com.datarango.gateway.exception.BadRequestException;
+import com.datarango.gateway.exception.ServiceUnavailableException;
+import com.datarango.gateway.headers.ProxyHeaders;
+import com.datarango.gateway.routing.Route;
+import com.datarango.gateway.routing.RouteTable;
+import com.datarango.gateway.routing.UpstreamRouteContext;
+import com.datarango.gateway.service.EurekaMicroserviceClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Runs the sub-requests of a batch concurrently through
+ * {@link EurekaMicroserviceClient}. Each call's read timeout is cut to what is
+ * left of the batch deadline, so stragglers release their connection at the
+ * deadline instead of when the upstream eventually answers. Sub-requests carry
+ * the batch request's headers, filtered as for a proxied call, plus the item
+ * headers named in {@code gateway.batch.item-headers}.
+ */
+@Service
+@EnableConfigurationProperties(BatchProperties.class)
+@Slf4j
+public class BatchService implements DisposableBean {
+
+    // Describe the batch body, not the sub-request's
+    private static final List<String> BATCH_BODY_HEADERS = List.of(HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_ENCODING, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+
+    private final RouteTable routeTable;
+    private final EurekaMicroserviceClient microserviceClient;
+    private final ProxyHeaders proxyHeaders;
+    private final ObjectMapper objectMapper;
+    private final BatchProperties properties;
+    private final Set<String> itemHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private final ExecutorService executor;
+
+    public BatchService(RouteTable routeTable, EurekaMicroserviceClient microserviceClient,
+            ProxyHeaders proxyHeaders, ObjectMapper objectMapper, BatchProperties properties,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.routeTable = routeTable;
+        this.microserviceClient = microserviceClient;
+        this.proxyHeaders = proxyHeaders;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.itemHeaders.addAll(properties.getItemHeaders());
+        if (virtualThreads) {
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("batch-", 0).factory());
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "batch-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Dispatches every sub-request and hands each result to {@code onResult} on
+     * the calling thread as it completes. Sub-requests still running at the
+     * deadline are cancelled and reported as 504. Returns the results in
+     * request order.
+     */
+    public List<BatchResult> execute(BatchRequest batch, HttpServletRequest request, HttpServletResponse response,
+            Consumer<BatchResult> onResult) {
+        List<BatchRequest.Item> items = batch.getRequests();
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("Batch must contain at least one request");
+        }
+        if (items.size() > properties.getMaxRequests()) {
+            throw new BadRequestException("Batch may contain at most " + properties.getMaxRequests() + " requests");
+        }
+
+        long timeoutMillis = Math.min(batch.getTimeoutMillis() != null && batch.getTimeoutMillis() > 0
+                ? batch.getTimeoutMillis()
+                : properties.getDefaultTimeoutMillis(), properties.getMaxTimeoutMillis());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        int size = items.size();
+        AtomicReferenceArray<BatchResult> results = new AtomicReferenceArray<>(size);
+        BlockingQueue<Integer> completed = new LinkedBlockingQueue<>();
+        Future<?>[] calls = new Future<?>[size];
+        for (int i = 0; i < size; i++) {
+            int index = i;
+            BatchRequest.Item item = items.get(i);
+            String id = item.getId() != null ? item.getId() : String.valueOf(i);
+            Route route = resolve(item);
+            if (route == null) {
+                results.set(index, BatchResult.error(id, 400, "No batchable route for " + item.getMethod() + " "
+                        + item.getPath()));
+                completed.add(index);
+                continue;
+            }
+            // Built here: the servlet request must not be read from the worker threads
+            HttpHeaders headers = headers(request, response, route, item);
+            calls[i] = executor.submit(() -> {
+                if (results.compareAndSet(index, null, call(id, route, item, headers, deadline))) {
+                    completed.add(index);
+                }
+            });
+        }
+
+        boolean[] delivered = new boolean[size];
+        try {
+            for (int remaining = size; remaining > 0; remaining--) {
+                long wait = deadline - System.nanoTime();
+                Integer index = wait > 0 ? completed.poll(wait, TimeUnit.NANOSECONDS) : completed.poll();
+                if (index == null) {
+                    break;
+                }
+                delivered[index] = true;
+                onResult.accept(results.get(index));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (delivered[i]) {
+                continue;
+            }
+            String id = items.get(i).getId() != null ? items.get(i).getId() : String.valueOf(i);
+            if (results.compareAndSet(i, null, BatchResult.error(id, 504, "Batch deadline exceeded"))) {
+                calls[i].cancel(true);
+            }
+            onResult.accept(results.get(i));
+        }
+
+        BatchResult[] ordered = new BatchResult[size];
+        for (int i = 0; i < size; i++) {
+            ordered[i] = results.get(i);
+        }
+        return Arrays.asList(ordered);
+    }
+
+    // Streaming and websocket routes hold the connection open and cannot be batched
+    private Route resolve(BatchRequest.Item item) {
+        if (item.getPath() == null || item.getMethod() == null) {
+            return null;
+        }
+        int query = item.getPath().indexOf('?');
+        Route route = routeTable.match(query >= 0 ? item.getPath().substring(0, query) : item.getPath());
+        if (route == null || !route.allows(item.getMethod().toUpperCase())
+                || route.hasFilter(Route.STREAMING_FILTER) || route.hasFilter(Route.WEBSOCKET_FILTER)) {
+            return null;
+        }
+        return route;
+    }
+
+    private HttpHeaders headers(HttpServletRequest request, HttpServletResponse response, Route route,
+            BatchRequest.Item item) {
+        HttpHeaders headers = new HttpHeaders();
+        proxyHeaders.copyRequestHeaders(request, response, route, headers);
+        BATCH_BODY_HEADERS.forEach(headers::remove);
+        if (item.getHeaders() != null) {
+            for (Map.Entry<String, String> header : item.getHeaders().entrySet()) {
+                if (itemHeaders.contains(header.getKey()) && !route.requestHeaders().removes(header.getKey())) {
+                    headers.set(header.getKey(), header.getValue());
+                }
+            }
+            route.requestHeaders().addTo(headers);
+        }
+        return headers;
+    }
+
+    private BatchResult call(String id, Route route, BatchRequest.Item item, HttpHeaders headers, long deadline) {
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMillis <= 0) {
+            return BatchResult.error(id, 504, "Batch deadline exceeded");
+        }
+        int readTimeout = (int) Math.min(remainingMillis,
+                route.readTimeoutMillis() != null ? route.readTimeoutMillis() : Integer.MAX_VALUE);
+
+        String path = item.getPath();
+        int query = path.indexOf('?');
+        String endpoint = query >= 0
+                ? route.endpoint(path.substring(0, query)) + path.substring(query)
+                : route.endpoint(path);
+
+        UpstreamRouteContext.set(route.withReadTimeoutMillis(readTimeout));
+        try {
+            ResponseEntity<byte[]> response = microserviceClient.callService(route.serviceId(), endpoint,
+                    HttpMethod.valueOf(item.getMethod().toUpperCase()), headers, item.getBody(), byte[].class);
+            return new BatchResult(id, response.getStatusCode().value(), parse(response.getBody()), null);
+        } catch (HttpStatusCodeException e) {
+            return new BatchResult(id, e.getStatusCode().value(), parse(e.getResponseBodyAsByteArray()), null);
+        } catch (ServiceUnavailableException e) {
+            return BatchResult.error(id, 503, e.getMessage());
+        } catch (ResourceAccessException e) {
+            return System.nanoTime() >= deadline
+                    ? BatchResult.error(id, 504, "Batch deadline exceeded")
+                    : BatchResult.error(id, 502, route.serviceId() + " is unreachable");
+        } catch (RuntimeException e) {
+            log.warn("Batch call {} to {} failed: {}", id, route.serviceId(), e.getMessage());
+            return BatchResult.error(id, 502, "Upstream call failed");
+        } finally {
+            UpstreamRouteContext.clear();
+        }
+    }
+
+    private JsonNode parse(byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(body);
+        } catch (Exception e) {
+            return TextNode.valueOf(new String(body, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,13 @@
+package com.datarango.gateway.buffer;
+
+import java.io.IOException;
+
+/**
+ * A body declared or found to be larger than gateway.buffer-pool.max-body-size.
+ */
+public class BodyTooLargeException extends IOException {
+
+    public BodyTooLargeException(long maxBodySize) {
+        super("Body exceeds " + maxBodySize + " bytes");
+    }
+}
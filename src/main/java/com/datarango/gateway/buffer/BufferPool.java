@@ -0,0 +1,243 @@
+package com.datarango.gateway.buffer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-class pool of direct buffers for proxied bodies, so payloads neither
+ * churn the young generation nor get promoted when a slow upstream keeps them
+ * alive. Each class is a power of two with its own bounded free list; a body
+ * that outgrows its buffer moves to the next class. Streams still need a
+ * byte[] to read into, so a pool of fixed-size transfer arrays sits alongside.
+ *
+ * <p>With leak detection on, every buffer remembers where it was acquired
+ * and one that is garbage collected without being closed is logged and
+ * counted in {@code gateway.buffers.leaks}.
+ */
+@Component
+@EnableConfigurationProperties(BufferPoolProperties.class)
+@Slf4j
+public class BufferPool {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private final BufferPoolProperties properties;
+    private final int minShift;
+    private final int[] classSizes;
+    private final BlockingQueue<ByteBuffer>[] free;
+    private final BlockingQueue<byte[]> arrays;
+    private final int arraySize;
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicLong inUseBytes = new AtomicLong();
+    private final Counter directAllocations;
+    private final Counter heapAllocations;
+    private final Counter leaks;
+
+    @SuppressWarnings("unchecked")
+    public BufferPool(BufferPoolProperties properties, MeterRegistry meterRegistry,
+            @Value("${gateway.proxy.buffer-size:8192}") int arraySize) {
+        this.properties = properties;
+        this.arraySize = arraySize;
+        int min = powerOfTwo(properties.getMinBufferSize());
+        int max = Math.max(min, powerOfTwo(properties.getMaxBufferSize()));
+        this.minShift = Integer.numberOfTrailingZeros(min);
+        int classes = Integer.numberOfTrailingZeros(max) - minShift + 1;
+        this.classSizes = new int[classes];
+        this.free = new BlockingQueue[classes];
+        for (int i = 0; i < classes; i++) {
+            classSizes[i] = min << i;
+            free[i] = new ArrayBlockingQueue<>(
+                    (int) Math.max(1, Math.min(properties.getMaxPooledBytesPerClass() / classSizes[i], 65536)));
+            BlockingQueue<ByteBuffer> idle = free[i];
+            Gauge.builder("gateway.buffers.idle", idle, BlockingQueue::size)
+                    .description("Direct buffers waiting in the pool")
+                    .tag("size", String.valueOf(classSizes[i]))
+                    .register(meterRegistry);
+        }
+        this.arrays = new ArrayBlockingQueue<>(1024);
+
+        Gauge.builder("gateway.buffers.in.use", inUse, AtomicInteger::get)
+                .description("Buffers currently holding a proxied body")
+                .register(meterRegistry);
+        Gauge.builder("gateway.buffers.in.use.bytes", inUseBytes, AtomicLong::get)
+                .description("Capacity of the buffers currently holding a proxied body")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.directAllocations = Counter.builder("gateway.buffers.allocations")
+                .description("Buffers allocated because the pool had none to reuse")
+                .tag("type", "direct")
+                .register(meterRegistry);
+        this.heapAllocations = Counter.builder("gateway.buffers.allocations")
+                .description("Buffers allocated because the pool had none to reuse")
+                .tag("type", "heap")
+                .register(meterRegistry);
+        this.leaks = Counter.builder("gateway.buffers.leaks")
+                .description("Buffers garbage collected without being released")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * A buffer of at least {@code capacity} bytes, empty and ready to be filled.
+     * Capacities above the largest size class get an unpooled heap buffer.
+     */
+    public PooledBuffer acquire(int capacity) {
+        int sizeClass = sizeClass(capacity);
+        ByteBuffer buffer;
+        if (sizeClass < 0) {
+            heapAllocations.increment();
+            buffer = ByteBuffer.allocate(capacity);
+        } else {
+            buffer = free[sizeClass].poll();
+            if (buffer == null) {
+                directAllocations.increment();
+                buffer = ByteBuffer.allocateDirect(classSizes[sizeClass]);
+            }
+        }
+        inUse.incrementAndGet();
+        inUseBytes.addAndGet(buffer.capacity());
+
+        if (!properties.isLeakDetection()) {
+            return new PooledBuffer(this, sizeClass, buffer, null);
+        }
+        Leak leak = new Leak(this, buffer.capacity(), new Throwable("Buffer acquired here"));
+        PooledBuffer pooled = new PooledBuffer(this, sizeClass, buffer, leak);
+        pooled.cleanable = CLEANER.register(pooled, leak);
+        return pooled;
+    }
+
+    /**
+     * Reads {@code in} to the end into a pooled buffer. {@code expectedLength}
+     * (negative when unknown) only sizes the first buffer, up to the largest
+     * size class; beyond that the buffer grows with the bytes actually read.
+     * Bodies declared or found larger than the configured maximum are rejected.
+     */
+    public PooledBuffer read(InputStream in, long expectedLength) throws IOException {
+        int maxBodySize = Math.min(properties.getMaxBodySize(), MAX_CAPACITY);
+        if (expectedLength > maxBodySize) {
+            throw new BodyTooLargeException(maxBodySize);
+        }
+        PooledBuffer target = acquire((int) Math.min(Math.max(expectedLength, 0),
+                Math.min(classSizes[classSizes.length - 1], maxBodySize)));
+        byte[] array = acquireArray();
+        try {
+            int read;
+            while ((read = in.read(array)) != -1) {
+                if (target.buffer.remaining() < read) {
+                    target = grow(target, read, maxBodySize);
+                }
+                target.buffer.put(array, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            target.close();
+            throw e;
+        } finally {
+            releaseArray(array);
+        }
+        target.buffer.flip();
+        return target;
+    }
+
+    private PooledBuffer grow(PooledBuffer current, int needed, int maxBodySize) throws IOException {
+        long required = (long) current.buffer.position() + needed;
+        if (required > maxBodySize) {
+            throw new BodyTooLargeException(maxBodySize);
+        }
+        PooledBuffer larger = acquire((int) Math.min(Math.max(required, 2L * current.capacity()), maxBodySize));
+        current.buffer.flip();
+        larger.buffer.put(current.buffer);
+        current.close();
+        return larger;
+    }
+
+    void release(PooledBuffer pooled) {
+        ByteBuffer buffer = pooled.buffer;
+        if (pooled.leak != null) {
+            pooled.leak.released = true;
+            pooled.cleanable.clean();
+        }
+        inUse.decrementAndGet();
+        inUseBytes.addAndGet(-buffer.capacity());
+        if (pooled.sizeClass >= 0) {
+            buffer.clear();
+            free[pooled.sizeClass].offer(buffer);
+        }
+    }
+
+    public byte[] acquireArray() {
+        byte[] array = arrays.poll();
+        return array != null ? array : new byte[arraySize];
+    }
+
+    public void releaseArray(byte[] array) {
+        if (array != null && array.length == arraySize) {
+            arrays.offer(array);
+        }
+    }
+
+    public int getInUse() {
+        return inUse.get();
+    }
+
+    public long getLeakCount() {
+        return (long) leaks.count();
+    }
+
+    private int sizeClass(int capacity) {
+        if (capacity <= classSizes[0]) {
+            return 0;
+        }
+        int sizeClass = 32 - Integer.numberOfLeadingZeros(capacity - 1) - minShift;
+        return sizeClass < classSizes.length ? sizeClass : -1;
+    }
+
+    private static int powerOfTwo(int size) {
+        return size <= 1 ? 1 : Integer.highestOneBit(Math.min(size, 1 << 30) - 1) << 1;
+    }
+
+    /**
+     * Cleaner action of a tracked buffer. Holds no reference to the
+     * {@link PooledBuffer} itself, or it would never become unreachable.
+     */
+    static final class Leak implements Runnable {
+
+        private final BufferPool pool;
+        private final int capacity;
+        private final Throwable acquiredAt;
+        volatile boolean released;
+
+        Leak(BufferPool pool, int capacity, Throwable acquiredAt) {
+            this.pool = pool;
+            this.capacity = capacity;
+            this.acquiredAt = acquiredAt;
+        }
+
+        @Override
+        public void run() {
+            if (!released) {
+                pool.leaks.increment();
+                pool.inUse.decrementAndGet();
+                pool.inUseBytes.addAndGet(-capacity);
+                log.error("Buffer of {} bytes was garbage collected without being released", capacity, acquiredAt);
+            }
+        }
+    }
+}
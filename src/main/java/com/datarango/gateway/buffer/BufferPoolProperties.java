@@ -0,0 +1,21 @@
+package com.datarango.gateway.buffer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.buffer-pool")
+public class BufferPoolProperties {
+
+    // Buffered-path bodies are held off-heap in pooled buffers instead of byte[]
+    private boolean enabled = true;
+    // Size classes are the powers of two from min to max; larger bodies use heap buffers
+    private int minBufferSize = 4096;
+    private int maxBufferSize = 1048576;
+    // Idle direct memory kept per size class; buffers released to a full class are dropped
+    private long maxPooledBytesPerClass = 8388608;
+    // Request bodies above this are rejected with 413, upstream bodies with 502
+    private int maxBodySize = 10485760;
+    // Records where each buffer was acquired and reports buffers collected unreleased
+    private boolean leakDetection = false;
+}
@@ -0,0 +1,74 @@
+package com.datarango.gateway.buffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A body held in a buffer borrowed from {@link BufferPool}. The content is
+ * bytes 0 to {@link #length()}; it can be written any number of times, so a
+ * retried upstream call resends the same buffer. Must be closed exactly by
+ * its owner, after which the buffer belongs to the pool again.
+ */
+public final class PooledBuffer implements AutoCloseable {
+
+    private final BufferPool pool;
+    // Index into the pool's size classes, or -1 for an oversized heap buffer
+    final int sizeClass;
+    final ByteBuffer buffer;
+    final BufferPool.Leak leak;
+    Cleaner.Cleanable cleanable;
+    // A racing second close must not hand the buffer to the pool twice
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    PooledBuffer(BufferPool pool, int sizeClass, ByteBuffer buffer, BufferPool.Leak leak) {
+        this.pool = pool;
+        this.sizeClass = sizeClass;
+        this.buffer = buffer;
+        this.leak = leak;
+    }
+
+    public int length() {
+        return buffer.limit();
+    }
+
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    public boolean isDirect() {
+        return buffer.isDirect();
+    }
+
+    /**
+     * Copies the content to {@code out} through a pooled transfer array. The
+     * buffer's position and limit are left untouched.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset(), buffer.limit());
+            return;
+        }
+        byte[] array = pool.acquireArray();
+        try {
+            int length = buffer.limit();
+            for (int offset = 0; offset < length; ) {
+                int chunk = Math.min(array.length, length - offset);
+                buffer.get(offset, array, 0, chunk);
+                out.write(array, 0, chunk);
+                offset += chunk;
+            }
+        } finally {
+            pool.releaseArray(array);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            pool.release(this);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.datarango.gateway.buffer;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+
+import java.io.IOException;
+
+/**
+ * Lets RestTemplate send and receive {@link PooledBuffer} bodies as raw bytes.
+ * Writing leaves the buffer open so retries can resend it; the caller owns
+ * and closes both request and response buffers.
+ */
+public class PooledBufferHttpMessageConverter extends AbstractHttpMessageConverter<PooledBuffer> {
+
+    private final BufferPool bufferPool;
+
+    public PooledBufferHttpMessageConverter(BufferPool bufferPool) {
+        super(MediaType.APPLICATION_OCTET_STREAM, MediaType.ALL);
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PooledBuffer.class == clazz;
+    }
+
+    @Override
+    protected PooledBuffer readInternal(Class<? extends PooledBuffer> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        return bufferPool.read(inputMessage.getBody(), inputMessage.getHeaders().getContentLength());
+    }
+
+    @Override
+    protected void writeInternal(PooledBuffer buffer, HttpOutputMessage outputMessage) throws IOException {
+        buffer.writeTo(outputMessage.getBody());
+    }
+
+    @Override
+    protected Long getContentLength(PooledBuffer buffer, MediaType contentType) {
+        return (long) buffer.length();
+    }
+}
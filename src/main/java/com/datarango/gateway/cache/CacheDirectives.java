@@ -0,0 +1,62 @@
+package com.datarango.gateway.cache;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parsed Cache-Control header. Directive names are lower-cased; directives
+ * without a value map to an empty string.
+ */
+final class CacheDirectives {
+
+    private final Map<String, String> directives;
+
+    private CacheDirectives(Map<String, String> directives) {
+        this.directives = directives;
+    }
+
+    static CacheDirectives parse(Iterable<String> headerValues) {
+        Map<String, String> directives = new HashMap<>();
+        if (headerValues != null) {
+            for (String headerValue : headerValues) {
+                for (String part : headerValue.split(",")) {
+                    String directive = part.trim();
+                    if (directive.isEmpty()) {
+                        continue;
+                    }
+                    int equals = directive.indexOf('=');
+                    if (equals < 0) {
+                        directives.put(directive.toLowerCase(Locale.ROOT), "");
+                    } else {
+                        String value = directive.substring(equals + 1).trim();
+                        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                            value = value.substring(1, value.length() - 1);
+                        }
+                        directives.put(directive.substring(0, equals).trim().toLowerCase(Locale.ROOT), value);
+                    }
+                }
+            }
+        }
+        return new CacheDirectives(directives);
+    }
+
+    boolean has(String directive) {
+        return directives.containsKey(directive);
+    }
+
+    /**
+     * Seconds value of a directive such as max-age, or -1 if absent or invalid.
+     */
+    long seconds(String directive) {
+        String value = directives.get(directive);
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.datarango.gateway.cache;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.function.Predicate;
+
+/**
+ * Holds a response body back for the cache only while it can still be stored.
+ * Status and headers are checked when the body starts, and the body is kept
+ * up to the entry size limit; responses that fail either check stream straight
+ * through, so memory per request stays bounded.
+ */
+class CacheableResponseWrapper extends HttpServletResponseWrapper {
+
+    private enum Mode {
+        UNDECIDED, BUFFERING, PASS_THROUGH
+    }
+
+    private final int maxBytes;
+    private final Predicate<HttpServletResponse> storable;
+    private final ServletOutputStream outputStream = new HoldingOutputStream();
+    private Mode mode = Mode.UNDECIDED;
+    private ByteArrayOutputStream buffer;
+    private long contentLength = -1;
+    private PrintWriter writer;
+
+    CacheableResponseWrapper(HttpServletResponse response, int maxBytes, Predicate<HttpServletResponse> storable) {
+        super(response);
+        this.maxBytes = maxBytes;
+        this.storable = storable;
+    }
+
+    /**
+     * The complete body once the chain has finished, or null when the response
+     * was passed through to the client instead.
+     */
+    byte[] bufferedBody() {
+        if (writer != null) {
+            writer.flush();
+        }
+        decide();
+        return mode == Mode.BUFFERING ? buffer.toByteArray() : null;
+    }
+
+    /**
+     * Writes a held-back body to the client. With {@code omitBody} (a 304) the
+     * body is dropped instead.
+     */
+    void release(boolean omitBody) throws IOException {
+        if (mode != Mode.BUFFERING) {
+            return;
+        }
+        ByteArrayOutputStream held = buffer;
+        buffer = null;
+        mode = Mode.PASS_THROUGH;
+        if (!omitBody) {
+            super.setContentLengthLong(held.size());
+            held.writeTo(super.getOutputStream());
+        }
+    }
+
+    private void decide() {
+        if (mode == Mode.UNDECIDED) {
+            if (storable.test(this) && contentLength <= maxBytes) {
+                mode = Mode.BUFFERING;
+                buffer = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : 1024);
+            } else {
+                passThrough();
+            }
+        }
+    }
+
+    private void passThrough() {
+        if (contentLength >= 0 && buffer == null) {
+            super.setContentLengthLong(contentLength);
+        }
+        mode = Mode.PASS_THROUGH;
+    }
+
+    // Over the entry limit: send what was held back and stream the rest
+    private void overflow() throws IOException {
+        ByteArrayOutputStream held = buffer;
+        buffer = null;
+        passThrough();
+        held.writeTo(super.getOutputStream());
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        decide();
+        if (mode == Mode.PASS_THROUGH) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (mode == Mode.PASS_THROUGH) {
+            super.setContentLengthLong(len);
+        } else {
+            contentLength = len;
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && mode != Mode.PASS_THROUGH) {
+            contentLength = value != null ? Long.parseLong(value.trim()) : -1;
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && mode != Mode.PASS_THROUGH) {
+            contentLength = Long.parseLong(value.trim());
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        discard();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        discard();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        discard();
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (buffer != null) {
+            buffer.reset();
+        } else {
+            super.resetBuffer();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        buffer = null;
+        contentLength = -1;
+        mode = Mode.UNDECIDED;
+    }
+
+    private void discard() {
+        buffer = null;
+        contentLength = -1;
+        mode = Mode.PASS_THROUGH;
+    }
+
+    private class HoldingOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            decide();
+            if (mode == Mode.BUFFERING && buffer.size() + 1 > maxBytes) {
+                overflow();
+            }
+            if (mode == Mode.BUFFERING) {
+                buffer.write(b);
+            } else {
+                CacheableResponseWrapper.super.getOutputStream().write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            decide();
+            if (mode == Mode.BUFFERING && buffer.size() + len > maxBytes) {
+                overflow();
+            }
+            if (mode == Mode.BUFFERING) {
+                buffer.write(b, off, len);
+            } else {
+                CacheableResponseWrapper.super.getOutputStream().write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            decide();
+            if (mode == Mode.PASS_THROUGH) {
+                CacheableResponseWrapper.super.getOutputStream().flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return mode != Mode.PASS_THROUGH || getResponseStream().isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            getResponseStream().setWriteListener(listener);
+        }
+
+        private ServletOutputStream getResponseStream() {
+            try {
+                return CacheableResponseWrapper.super.getOutputStream();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
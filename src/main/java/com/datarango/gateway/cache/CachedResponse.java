@@ -0,0 +1,31 @@
+package com.datarango.gateway.cache;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A stored upstream response. Times are epoch millis so entries keep their
+ * meaning when shared through Redis.
+ */
+public record CachedResponse(int status, Map<String, List<String>> headers, byte[] body, String etag,
+        List<String> varyHeaders, long storedAtMillis, long expiresAtMillis) {
+
+    public boolean isFresh(long nowMillis) {
+        return nowMillis < expiresAtMillis;
+    }
+
+    public long ageSeconds(long nowMillis) {
+        return Math.max(0, (nowMillis - storedAtMillis) / 1000);
+    }
+
+    int weight() {
+        int weight = body.length;
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            weight += header.getKey().length();
+            for (String value : header.getValue()) {
+                weight += value.length();
+            }
+        }
+        return weight;
+    }
+}
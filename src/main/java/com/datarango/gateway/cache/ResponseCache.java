@@ -0,0 +1,299 @@
+package com.datarango.gateway.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-tier store for cacheable upstream responses: a size-bounded Caffeine
+ * tier and, when enabled, a shared Redis tier. Entries are keyed by the
+ * request URL plus the values of the request headers named in the response's
+ * Vary, whose names are tracked per URL.
+ */
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+@Slf4j
+public class ResponseCache {
+
+    private final ResponseCacheProperties properties;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CachedResponse> entries;
+    private final Cache<String, List<String>> varyIndex;
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder served = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+    private final Counter hits;
+    private final Counter notModified;
+    private final Counter coalesced;
+    private final Counter misses;
+    private final Counter bypassed;
+    private final Counter bytesSaved;
+
+    public ResponseCache(ResponseCacheProperties properties, RedisTemplate<String, String> redisTemplate,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxBytes())
+                .weigher((String key, CachedResponse entry) -> key.length() + entry.weight())
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse entry, long currentTime) {
+                        long millis = entry.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse entry, long currentTime,
+                            long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse entry, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        this.varyIndex = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofHours(1))
+                .build();
+
+        this.hits = result(meterRegistry, "hit");
+        this.notModified = result(meterRegistry, "not_modified");
+        this.coalesced = result(meterRegistry, "coalesced");
+        this.misses = result(meterRegistry, "miss");
+        this.bypassed = result(meterRegistry, "bypass");
+        this.bytesSaved = Counter.builder("gateway.cache.bytes_saved")
+                .description("Response body bytes served without an upstream call")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("gateway.cache.hit_ratio", this, ResponseCache::hitRatio)
+                .description("Share of cacheable lookups answered from the cache")
+                .register(meterRegistry);
+        Gauge.builder("gateway.cache.size", entries, cache -> cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "responses");
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public int maxEntryBytes() {
+        return properties.getMaxEntryBytes();
+    }
+
+    public static String baseKey(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return request.getMethod() + " " + request.getRequestURI() + (query != null ? "?" + query : "");
+    }
+
+    /**
+     * Key of the variant this request selects, using the Vary names last seen for the URL.
+     */
+    public String variantKey(String baseKey, HttpServletRequest request) {
+        List<String> vary = varyIndex.getIfPresent(baseKey);
+        if (vary == null && properties.getRedis().isEnabled()) {
+            vary = readVaryFromRedis(baseKey);
+        }
+        return variantKey(baseKey, vary, request);
+    }
+
+    static String variantKey(String baseKey, List<String> varyHeaders, HttpServletRequest request) {
+        if (varyHeaders == null || varyHeaders.isEmpty()) {
+            return baseKey;
+        }
+        StringBuilder key = new StringBuilder(baseKey);
+        for (String name : varyHeaders) {
+            key.append('\n').append(name).append(':');
+            Enumeration<String> values = request.getHeaders(name);
+            while (values != null && values.hasMoreElements()) {
+                key.append(values.nextElement()).append(',');
+            }
+        }
+        return key.toString();
+    }
+
+    public CachedResponse lookup(String variantKey) {
+        lookups.increment();
+        long now = System.currentTimeMillis();
+        CachedResponse entry = entries.getIfPresent(variantKey);
+        if (entry == null && properties.getRedis().isEnabled()) {
+            entry = readFromRedis(variantKey);
+            if (entry != null && entry.isFresh(now)) {
+                entries.put(variantKey, entry);
+            }
+        }
+        if (entry == null || !entry.isFresh(now)) {
+            misses.increment();
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Local-only read used after waiting on another request's fetch, which is
+     * not counted as a separate lookup.
+     */
+    public CachedResponse peek(String variantKey) {
+        CachedResponse entry = entries.getIfPresent(variantKey);
+        return entry != null && entry.isFresh(System.currentTimeMillis()) ? entry : null;
+    }
+
+    public void store(String baseKey, HttpServletRequest request, CachedResponse entry) {
+        if (entry.body().length > properties.getMaxEntryBytes()) {
+            return;
+        }
+        varyIndex.put(baseKey, entry.varyHeaders());
+        String variantKey = variantKey(baseKey, entry.varyHeaders(), request);
+        entries.put(variantKey, entry);
+        if (properties.getRedis().isEnabled()) {
+            writeToRedis(baseKey, variantKey, entry);
+        }
+    }
+
+    /**
+     * Registers the caller as the one fetching a key. Returns null if it is,
+     * or the pending fetch to wait for if another request got there first.
+     */
+    public CompletableFuture<Void> joinFetch(String variantKey) {
+        return inFlight.putIfAbsent(variantKey, new CompletableFuture<>());
+    }
+
+    public void completeFetch(String variantKey) {
+        CompletableFuture<Void> fetch = inFlight.remove(variantKey);
+        if (fetch != null) {
+            fetch.complete(null);
+        }
+    }
+
+    public void awaitFetch(CompletableFuture<Void> fetch) {
+        try {
+            fetch.get(properties.getCoalesceTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Fall through to our own upstream call
+        }
+    }
+
+    public void recordHit(CachedResponse entry, boolean wasCoalesced) {
+        served.increment();
+        (wasCoalesced ? coalesced : hits).increment();
+        bytesSaved.increment(entry.body().length);
+    }
+
+    public void recordNotModified(CachedResponse entry) {
+        served.increment();
+        notModified.increment();
+        bytesSaved.increment(entry.body().length);
+    }
+
+    public void recordBypass() {
+        bypassed.increment();
+    }
+
+    static String weakEtag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private double hitRatio() {
+        double total = lookups.sum();
+        return total == 0 ? 0 : served.sum() / total;
+    }
+
+    private CachedResponse readFromRedis(String variantKey) {
+        try {
+            String json = redisTemplate.opsForValue().get(redisKey(variantKey));
+            return json != null ? objectMapper.readValue(json, CachedResponse.class) : null;
+        } catch (Exception e) {
+            log.debug("Response cache Redis read failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> readVaryFromRedis(String baseKey) {
+        try {
+            String json = redisTemplate.opsForValue().get(redisKey("vary\n" + baseKey));
+            if (json == null) {
+                return null;
+            }
+            List<String> vary = objectMapper.readValue(json, List.class);
+            varyIndex.put(baseKey, vary);
+            return vary;
+        } catch (Exception e) {
+            log.debug("Response cache Redis read failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToRedis(String baseKey, String variantKey, CachedResponse entry) {
+        long ttl = entry.expiresAtMillis() - System.currentTimeMillis();
+        if (ttl <= 0) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(redisKey(variantKey), objectMapper.writeValueAsString(entry),
+                    ttl, TimeUnit.MILLISECONDS);
+            redisTemplate.opsForValue().set(redisKey("vary\n" + baseKey),
+                    objectMapper.writeValueAsString(entry.varyHeaders()), Duration.ofHours(1));
+        } catch (Exception e) {
+            log.debug("Response cache Redis write failed: {}", e.getMessage());
+        }
+    }
+
+    private String redisKey(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return properties.getRedis().getKeyPrefix() + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Counter result(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.cache.requests")
+                .description("Cacheable GET requests by cache outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
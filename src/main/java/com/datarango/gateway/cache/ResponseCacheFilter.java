@@ -0,0 +1,273 @@
+package com.datarango.gateway.cache;
+
+import com.datarango.gateway.headers.ProxyHeaders;
+import com.datarango.gateway.routing.Route;
+import com.datarango.gateway.routing.RouteTable;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Shared HTTP cache for GETs on routes with the {@code cache} filter. Only
+ * 200 responses with an explicit max-age or s-maxage are stored, and
+ * responses to authenticated requests additionally need public, s-maxage or
+ * must-revalidate (RFC 9111 section 3.5). Only bodies that may be stored and
+ * fit in an entry are held in memory; the rest stream through. Concurrent
+ * misses for the same key wait for the first one instead of all going
+ * upstream. A hit carries the correlation ID of the request it answers, not
+ * that of the stored response.
+ */
+public class ResponseCacheFilter implements Filter {
+
+    public static final String CACHE_FILTER = "cache";
+
+    // Headers that belong to this exchange rather than the cached representation
+    private static final Set<String> UNCACHED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        UNCACHED_HEADERS.addAll(List.of(
+                "Connection",
+                "Keep-Alive",
+                "Transfer-Encoding",
+                "Content-Length",
+                "Date",
+                "Age",
+                "Retry-After",
+                "X-RateLimit-Limit",
+                "X-RateLimit-Remaining"));
+    }
+
+    private final ResponseCache cache;
+    private final RouteTable routeTable;
+    private final ProxyHeaders proxyHeaders;
+    private final Set<String> uncachedHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    public ResponseCacheFilter(ResponseCache cache, RouteTable routeTable, ProxyHeaders proxyHeaders) {
+        this.cache = cache;
+        this.routeTable = routeTable;
+        this.proxyHeaders = proxyHeaders;
+        uncachedHeaders.addAll(UNCACHED_HEADERS);
+        if (proxyHeaders.correlationIdHeader() != null) {
+            uncachedHeaders.add(proxyHeaders.correlationIdHeader());
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) req;
+        HttpServletResponse response = (HttpServletResponse) res;
+
+        Route route = routeTable.resolve(request);
+        if (!cache.isEnabled() || !"GET".equals(request.getMethod()) || route == null
+                || !route.hasFilter(CACHE_FILTER)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        CacheDirectives requestDirectives = CacheDirectives.parse(
+                Collections.list(request.getHeaders(HttpHeaders.CACHE_CONTROL)));
+        String baseKey = ResponseCache.baseKey(request);
+        if (requestDirectives.has("no-cache") || requestDirectives.seconds("max-age") == 0
+                || "no-cache".equalsIgnoreCase(request.getHeader(HttpHeaders.PRAGMA))) {
+            cache.recordBypass();
+            fetch(baseKey, request, response, chain, !requestDirectives.has("no-store"));
+            return;
+        }
+
+        String variantKey = cache.variantKey(baseKey, request);
+        CachedResponse entry = cache.lookup(variantKey);
+        if (entry != null) {
+            serve(entry, request, response, false);
+            return;
+        }
+
+        CompletableFuture<Void> pending = cache.joinFetch(variantKey);
+        if (pending != null) {
+            cache.awaitFetch(pending);
+            CachedResponse shared = cache.peek(cache.variantKey(baseKey, request));
+            if (shared != null) {
+                serve(shared, request, response, true);
+            } else {
+                fetch(baseKey, request, response, chain, true);
+            }
+            return;
+        }
+
+        try {
+            fetch(baseKey, request, response, chain, true);
+        } finally {
+            cache.completeFetch(variantKey);
+        }
+    }
+
+    private void fetch(String baseKey, HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+            boolean mayStore) throws IOException, ServletException {
+        if (!mayStore) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CacheableResponseWrapper wrapper = new CacheableResponseWrapper(response, cache.maxEntryBytes(),
+                candidate -> storableTtlSeconds(request, candidate) > 0);
+        boolean notModified = false;
+        try {
+            chain.doFilter(request, wrapper);
+            byte[] body = wrapper.bufferedBody();
+            CachedResponse entry = body != null ? toEntry(request, wrapper, body) : null;
+            if (entry != null) {
+                cache.store(baseKey, request, entry);
+                if (!wrapper.containsHeader(HttpHeaders.ETAG)) {
+                    wrapper.setHeader(HttpHeaders.ETAG, entry.etag());
+                }
+                if (matchesIfNoneMatch(request, entry.etag())) {
+                    notModified = true;
+                    wrapper.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                }
+            }
+        } finally {
+            wrapper.release(notModified);
+        }
+    }
+
+    /**
+     * Freshness lifetime a shared cache may give this response, or 0 when it
+     * must not be stored. Needs only the status and headers, so it is checked
+     * before any of the body is held back.
+     */
+    static long storableTtlSeconds(HttpServletRequest request, HttpServletResponse response) {
+        if (response.getStatus() != HttpServletResponse.SC_OK || response.containsHeader(HttpHeaders.SET_COOKIE)) {
+            return 0;
+        }
+        CacheDirectives directives = CacheDirectives.parse(response.getHeaders(HttpHeaders.CACHE_CONTROL));
+        if (directives.has("no-store") || directives.has("private") || directives.has("no-cache")) {
+            return 0;
+        }
+        if (request.getHeader(HttpHeaders.AUTHORIZATION) != null && !directives.has("public")
+                && !directives.has("s-maxage") && !directives.has("must-revalidate")) {
+            return 0;
+        }
+        for (String value : response.getHeaders(HttpHeaders.VARY)) {
+            if (value.contains("*")) {
+                return 0;
+            }
+        }
+        long ttlSeconds = directives.seconds("s-maxage");
+        if (ttlSeconds < 0) {
+            ttlSeconds = directives.seconds("max-age");
+        }
+        return Math.max(ttlSeconds, 0);
+    }
+
+    private CachedResponse toEntry(HttpServletRequest request, HttpServletResponse response, byte[] body) {
+        long ttlSeconds = storableTtlSeconds(request, response);
+        if (ttlSeconds <= 0) {
+            return null;
+        }
+
+        List<String> vary = new ArrayList<>();
+        for (String value : response.getHeaders(HttpHeaders.VARY)) {
+            for (String name : value.split(",")) {
+                String trimmed = name.trim();
+                if (!trimmed.isEmpty()) {
+                    vary.add(trimmed.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+
+        // An upstream-encoded body is only good for clients accepting that encoding,
+        // whether or not the upstream said so
+        String encoding = response.getHeader(HttpHeaders.CONTENT_ENCODING);
+        boolean varyOnEncoding = encoding != null && !encoding.equalsIgnoreCase("identity")
+                && !vary.contains("accept-encoding");
+        if (varyOnEncoding) {
+            vary.add("accept-encoding");
+        }
+
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!uncachedHeaders.contains(name) && !name.regionMatches(true, 0, "Access-Control-", 0, 15)) {
+                List<String> values = new ArrayList<>(response.getHeaders(name));
+                if (varyOnEncoding && HttpHeaders.VARY.equalsIgnoreCase(name)) {
+                    values.add(HttpHeaders.ACCEPT_ENCODING);
+                    varyOnEncoding = false;
+                }
+                headers.put(name, values);
+            }
+        }
+        if (varyOnEncoding) {
+            headers.put(HttpHeaders.VARY, new ArrayList<>(List.of(HttpHeaders.ACCEPT_ENCODING)));
+        }
+        String etag = response.getHeader(HttpHeaders.ETAG);
+        if (etag == null) {
+            etag = ResponseCache.weakEtag(body);
+            headers.put(HttpHeaders.ETAG, List.of(etag));
+        }
+        long now = System.currentTimeMillis();
+        return new CachedResponse(response.getStatus(), headers, body, etag, vary.stream().sorted().toList(),
+                now, now + ttlSeconds * 1000);
+    }
+
+    private void serve(CachedResponse entry, HttpServletRequest request, HttpServletResponse response,
+            boolean wasCoalesced) throws IOException {
+        long now = System.currentTimeMillis();
+        boolean notModified = matchesIfNoneMatch(request, entry.etag());
+        response.setStatus(notModified ? HttpServletResponse.SC_NOT_MODIFIED : entry.status());
+        for (Map.Entry<String, List<String>> header : entry.headers().entrySet()) {
+            // CORS processing has already written its own Vary values on this response
+            if ((HttpHeaders.VARY.equalsIgnoreCase(header.getKey()) && response.containsHeader(HttpHeaders.VARY))
+                    || uncachedHeaders.contains(header.getKey())) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                response.addHeader(header.getKey(), value);
+            }
+        }
+        response.setHeader(HttpHeaders.AGE, String.valueOf(entry.ageSeconds(now)));
+        if (proxyHeaders.correlationIdHeader() != null) {
+            response.setHeader(proxyHeaders.correlationIdHeader(), proxyHeaders.correlationId(request));
+        }
+
+        if (notModified) {
+            cache.recordNotModified(entry);
+            return;
+        }
+        cache.recordHit(entry, wasCoalesced);
+        response.setContentLength(entry.body().length);
+        response.getOutputStream().write(entry.body());
+    }
+
+    static boolean matchesIfNoneMatch(HttpServletRequest request, String etag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || stripWeak(trimmed).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -0,0 +1,23 @@
+package com.datarango.gateway.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+    // Total body and header bytes held in memory
+    private long maxBytes = 64L * 1024 * 1024;
+    private int maxEntryBytes = 1024 * 1024;
+    // How long concurrent misses wait for the first one before going upstream themselves
+    private long coalesceTimeoutMillis = 5000;
+    private Redis redis = new Redis();
+
+    @Data
+    public static class Redis {
+        private boolean enabled = false;
+        private String keyPrefix = "response_cache:";
+    }
+}
@@ -0,0 +1,313 @@
+package com.datarango.gateway.compression;
+
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Holds back the first {@code minResponseSize} bytes of the body and then
+ * decides whether to compress: only when the client negotiated an encoding,
+ * the content type is allowlisted and the upstream did not already encode the
+ * body. Already-encoded bodies are forwarded byte for byte.
+ */
+class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final CompressionFilter filter;
+    private final ContentEncoding encoding;
+    private final boolean headRequest;
+
+    private CompressingOutputStream stream;
+    private PrintWriter writer;
+    private long declaredLength = -1;
+    private boolean decided;
+    private boolean compressing;
+
+    CompressingResponseWrapper(HttpServletResponse response, CompressionFilter filter, ContentEncoding encoding,
+            boolean headRequest) {
+        super(response);
+        this.filter = filter;
+        this.encoding = encoding;
+        this.headRequest = headRequest;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        return stream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(stream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (decided) {
+            if (!compressing) {
+                super.setContentLengthLong(len);
+            }
+        } else {
+            declaredLength = len;
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(parseLength(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(parseLength(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        } else if (stream != null) {
+            stream.flush();
+        } else {
+            decide(0, false);
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (stream != null) {
+            stream.resetPending();
+        }
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        if (stream != null) {
+            stream.resetPending();
+        }
+        declaredLength = -1;
+        super.reset();
+    }
+
+    /**
+     * Completes the body once the rest of the filter chain has returned.
+     */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (stream != null) {
+            stream.finish();
+        } else {
+            decide(0, true);
+        }
+    }
+
+    private CompressingOutputStream stream() throws IOException {
+        if (stream == null) {
+            stream = new CompressingOutputStream(super.getOutputStream());
+        }
+        return stream;
+    }
+
+    private void decide(int bufferedBytes, boolean complete) {
+        if (decided) {
+            return;
+        }
+        decided = true;
+        compressing = shouldCompress(bufferedBytes, complete);
+        if (compressing) {
+            super.setHeader(HttpHeaders.CONTENT_ENCODING, encoding.getToken());
+            String etag = getHeader(HttpHeaders.ETAG);
+            if (etag != null && !etag.startsWith("W/")) {
+                // The compressed bytes are a different representation
+                super.setHeader(HttpHeaders.ETAG, "W/" + etag);
+            }
+        } else if (declaredLength >= 0) {
+            super.setContentLengthLong(declaredLength);
+        }
+        if (compressible()) {
+            addVaryAcceptEncoding();
+        }
+    }
+
+    private boolean shouldCompress(int bufferedBytes, boolean complete) {
+        if (encoding == null || headRequest || !compressible()) {
+            return false;
+        }
+        int status = getStatus();
+        if (status < 200 || status == SC_NO_CONTENT || status == SC_NOT_MODIFIED) {
+            return false;
+        }
+        if (declaredLength >= 0) {
+            return declaredLength >= filter.getMinResponseSize();
+        }
+        return !complete || bufferedBytes >= filter.getMinResponseSize();
+    }
+
+    private boolean compressible() {
+        if (getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+            return false;
+        }
+        String contentType = getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            return filter.isCompressible(MediaType.parseMediaType(contentType));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void addVaryAcceptEncoding() {
+        Collection<String> vary = getHeaders(HttpHeaders.VARY);
+        for (String value : vary) {
+            if (value.toLowerCase(Locale.ROOT).contains("accept-encoding") || value.contains("*")) {
+                return;
+            }
+        }
+        super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static long parseLength(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private final class CompressingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream raw;
+        private byte[] pending;
+        private int count;
+        private OutputStream target;
+        private boolean finished;
+
+        CompressingOutputStream(ServletOutputStream raw) {
+            this.raw = raw;
+            this.pending = filter.getPools().acquireBuffer();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (target == null && count < threshold()) {
+                pending[count++] = (byte) b;
+                return;
+            }
+            open(false).write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (target == null && count + len < threshold()) {
+                System.arraycopy(b, off, pending, count, len);
+                count += len;
+                return;
+            }
+            open(false).write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            open(false).flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        @Override
+        public boolean isReady() {
+            return raw.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            raw.setWriteListener(writeListener);
+        }
+
+        void resetPending() {
+            if (target == null) {
+                count = 0;
+            }
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            OutputStream out = open(true);
+            if (out != raw) {
+                out.close();
+            }
+            raw.flush();
+        }
+
+        private int threshold() {
+            return Math.min(filter.getMinResponseSize(), pending.length);
+        }
+
+        private OutputStream open(boolean complete) throws IOException {
+            if (target != null) {
+                return target;
+            }
+            decide(count, complete);
+            if (compressing) {
+                filter.recordCompressed(encoding);
+                target = encoding == ContentEncoding.BROTLI
+                        ? new BrotliOutputStream(raw, new Encoder.Parameters().setQuality(filter.getBrotliQuality()),
+                                filter.getPools().getBufferSize())
+                        : new PooledGzipOutputStream(raw, filter.getPools());
+            } else {
+                target = raw;
+            }
+            if (count > 0) {
+                target.write(pending, 0, count);
+            }
+            filter.getPools().releaseBuffer(pending);
+            pending = null;
+            count = 0;
+            return target;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.datarango.gateway.compression;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Content-negotiated gzip/brotli compression of gateway responses. Brotli is
+ * only offered when the native brotli4j library loads on this platform.
+ */
+@Slf4j
+public class CompressionFilter implements Filter {
+
+    private final CompressionProperties properties;
+    private final CompressionPools pools;
+    private final List<MediaType> mimeTypes;
+    private final boolean brotliAvailable;
+    private final MeterRegistry meterRegistry;
+
+    public CompressionFilter(CompressionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.pools = new CompressionPools(properties.getBufferSize(), properties.getGzipLevel(),
+                properties.getPoolSize());
+        this.mimeTypes = properties.getMimeTypes().stream().map(MediaType::parseMediaType).toList();
+        this.brotliAvailable = properties.isBrotliEnabled() && loadBrotli();
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) req;
+        ContentEncoding encoding = properties.isEnabled()
+                ? ContentEncoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING), brotliAvailable)
+                : null;
+        if (encoding == null) {
+            chain.doFilter(req, res);
+            return;
+        }
+
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper((HttpServletResponse) res, this,
+                encoding, "HEAD".equals(request.getMethod()));
+        chain.doFilter(request, wrapper);
+        wrapper.finish();
+    }
+
+    boolean isCompressible(MediaType contentType) {
+        for (MediaType mimeType : mimeTypes) {
+            if (mimeType.includes(contentType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int getMinResponseSize() {
+        return properties.getMinResponseSize();
+    }
+
+    int getBrotliQuality() {
+        return properties.getBrotliQuality();
+    }
+
+    CompressionPools getPools() {
+        return pools;
+    }
+
+    void recordCompressed(ContentEncoding encoding) {
+        Counter.builder("gateway.compression.responses")
+                .description("Responses compressed by the gateway")
+                .tag("encoding", encoding.getToken())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static boolean loadBrotli() {
+        try {
+            Brotli4jLoader.ensureAvailability();
+            return true;
+        } catch (Throwable e) {
+            log.warn("Brotli native library unavailable, compressing with gzip only: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pools.clear();
+    }
+}
@@ -0,0 +1,61 @@
+package com.datarango.gateway.compression;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Reusable byte buffers and raw deflaters, so compressing a response does not
+ * allocate a new 8 KiB buffer and native zlib stream each time. Pools are
+ * bounded; anything returned to a full pool is dropped (deflaters are ended).
+ */
+public class CompressionPools {
+
+    private final int bufferSize;
+    private final int gzipLevel;
+    private final BlockingQueue<byte[]> buffers;
+    private final BlockingQueue<Deflater> deflaters;
+
+    public CompressionPools(int bufferSize, int gzipLevel, int poolSize) {
+        this.bufferSize = bufferSize;
+        this.gzipLevel = gzipLevel;
+        this.buffers = new ArrayBlockingQueue<>(poolSize);
+        this.deflaters = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    public byte[] acquireBuffer() {
+        byte[] buffer = buffers.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    public void releaseBuffer(byte[] buffer) {
+        if (buffer != null && buffer.length == bufferSize) {
+            buffers.offer(buffer);
+        }
+    }
+
+    public Deflater acquireDeflater() {
+        Deflater deflater = deflaters.poll();
+        // nowrap: the gzip header and trailer are written by PooledGzipOutputStream
+        return deflater != null ? deflater : new Deflater(gzipLevel, true);
+    }
+
+    public void releaseDeflater(Deflater deflater) {
+        deflater.reset();
+        if (!deflaters.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void clear() {
+        buffers.clear();
+        Deflater deflater;
+        while ((deflater = deflaters.poll()) != null) {
+            deflater.end();
+        }
+    }
+}
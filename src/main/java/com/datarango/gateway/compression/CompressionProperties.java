@@ -0,0 +1,33 @@
+package com.datarango.gateway.compression;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.compression")
+public class CompressionProperties {
+
+    private boolean enabled = true;
+    // Bodies smaller than this are sent as-is; capped at bufferSize
+    private int minResponseSize = 1024;
+    private List<String> mimeTypes = new ArrayList<>(List.of(
+            "application/json",
+            "application/problem+json",
+            "application/xml",
+            "application/javascript",
+            "text/html",
+            "text/plain",
+            "text/css",
+            "text/xml",
+            "text/csv"));
+    private int gzipLevel = 6;
+    // Brotli quality 4 compresses better than gzip -6 at similar CPU cost
+    private int brotliQuality = 4;
+    private boolean brotliEnabled = true;
+    private int bufferSize = 8192;
+    // Idle buffers and deflaters kept for reuse
+    private int poolSize = 256;
+}
@@ -0,0 +1,114 @@
+package com.datarango.gateway.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * GZIP writer over a pooled raw {@link Deflater} and output buffer. Unlike
+ * {@link java.util.zip.GZIPOutputStream} it supports sync flushes, so streamed
+ * responses reach the client as they are produced.
+ */
+class PooledGzipOutputStream extends OutputStream {
+
+    private static final byte[] HEADER = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    private final OutputStream out;
+    private final CompressionPools pools;
+    private final CRC32 crc = new CRC32();
+    private Deflater deflater;
+    private byte[] buffer;
+    private boolean headerWritten;
+
+    PooledGzipOutputStream(OutputStream out, CompressionPools pools) {
+        this.out = out;
+        this.pools = pools;
+        this.deflater = pools.acquireDeflater();
+        this.buffer = pools.acquireBuffer();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        writeHeader();
+        crc.update(b, off, len);
+        deflater.setInput(b, off, len);
+        while (!deflater.needsInput()) {
+            drain(Deflater.NO_FLUSH);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (deflater != null) {
+            writeHeader();
+            int written;
+            do {
+                written = drain(Deflater.SYNC_FLUSH);
+            } while (written == buffer.length);
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (deflater == null) {
+            return;
+        }
+        try {
+            writeHeader();
+            deflater.finish();
+            while (!deflater.finished()) {
+                drain(Deflater.NO_FLUSH);
+            }
+            writeTrailer();
+            out.flush();
+        } finally {
+            pools.releaseDeflater(deflater);
+            pools.releaseBuffer(buffer);
+            deflater = null;
+            buffer = null;
+        }
+    }
+
+    private int drain(int flushMode) throws IOException {
+        int length = deflater.deflate(buffer, 0, buffer.length, flushMode);
+        if (length > 0) {
+            out.write(buffer, 0, length);
+        }
+        return length;
+    }
+
+    private void writeHeader() throws IOException {
+        if (!headerWritten) {
+            out.write(HEADER);
+            headerWritten = true;
+        }
+    }
+
+    private void writeTrailer() throws IOException {
+        writeInt((int) crc.getValue());
+        writeInt((int) deflater.getBytesRead());
+    }
+
+    private void writeInt(int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >> 8) & 0xff);
+        out.write((value >> 16) & 0xff);
+        out.write((value >> 24) & 0xff);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (deflater == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
@@ -1,40 +1,65 @@
 package com.datarango.gateway.config;
 
+import com.datarango.gateway.service.JwtTokenService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 
 @Component
+@RequiredArgsConstructor
 public class BearerTokenAuthenticationFilter extends OncePerRequestFilter {
 
+    /** Token claim listing extra roles, e.g. {@code "roles": ["admin"]} grants ROLE_ADMIN. */
+    static final String ROLES_CLAIM = "roles";
+
+    private final JwtTokenService jwtTokenService;
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain)
             throws ServletException, IOException {
 
-        String authHeader = request.getHeader("Authorization");
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            if (!token.isEmpty()) {
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        "bearer-user",
-                        null,
-                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-            }
+        Claims claims = jwtTokenService.resolveClaims(request);
+        if (claims != null) {
+            String principal = claims.getSubject() != null ? claims.getSubject() : "bearer-user";
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    principal,
+                    null,
+                    authorities(claims));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
         }
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    static List<GrantedAuthority> authorities(Claims claims) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+        Object roles = claims.get(ROLES_CLAIM);
+        Collection<?> values = roles instanceof Collection<?> collection ? collection
+                : roles instanceof String value ? List.of(value.split(",")) : List.of();
+        for (Object role : values) {
+            String name = String.valueOf(role).trim().toUpperCase(Locale.ROOT);
+            if (!name.isEmpty() && !name.equals("USER")) {
+                authorities.add(new SimpleGrantedAuthority(name.startsWith("ROLE_") ? name : "ROLE_" + name));
+            }
+        }
+        return authorities;
+    }
+}
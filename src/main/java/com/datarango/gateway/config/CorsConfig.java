@@ -33,7 +33,10 @@ public class CorsConfig {
         ));
         configuration.setExposedHeaders(Arrays.asList(
             "X-Correlation-ID",
-            "X-Total-Count"
+            "X-Total-Count",
+            "X-RateLimit-Limit",
+            "X-RateLimit-Remaining",
+            "Retry-After"
         ));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
@@ -1,19 +1,40 @@
 package com.datarango.gateway.config;
 
+import com.datarango.gateway.cache.ResponseCache;
+import com.datarango.gateway.cache.ResponseCacheFilter;
+import com.datarango.gateway.compression.CompressionFilter;
+import com.datarango.gateway.compression.CompressionProperties;
+import com.datarango.gateway.headers.ProxyHeaders;
+import com.datarango.gateway.metrics.RequestTimingFilter;
+import com.datarango.gateway.metrics.TimingProperties;
 import com.datarango.gateway.middleware.LoggingFilter;
 import com.datarango.gateway.middleware.RateLimitFilter;
-import com.datarango.gateway.service.EurekaMicroserviceClient;
+import com.datarango.gateway.ratelimit.LocalRateLimiter;
+import com.datarango.gateway.ratelimit.RateLimitPolicies;
+import com.datarango.gateway.ratelimit.RateLimitProperties;
+import com.datarango.gateway.ratelimit.RateLimiter;
+import com.datarango.gateway.ratelimit.RedisRateLimiter;
+import com.datarango.gateway.routing.RouteTable;
+import com.datarango.gateway.service.JwtTokenService;
+import com.datarango.gateway.service.SubscriptionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.redis.core.RedisTemplate;
 
 @Configuration
+@EnableConfigurationProperties({ RateLimitProperties.class, CompressionProperties.class, TimingProperties.class })
 public class FilterConfig {
 
     @Bean
-    public RateLimitFilter rateLimitFilter(RedisTemplate<String, String> redisTemplate, EurekaMicroserviceClient microserviceClient) {
-        return new RateLimitFilter(redisTemplate, microserviceClient);
+    public RateLimitFilter rateLimitFilter(SubscriptionService subscriptionService,
+            JwtTokenService jwtTokenService, RedisRateLimiter redisRateLimiter, LocalRateLimiter localRateLimiter,
+            RateLimitProperties rateLimitProperties, RateLimitPolicies rateLimitPolicies, RouteTable routeTable) {
+        RateLimiter rateLimiter = rateLimitProperties.getLocal().isEnabled() ? localRateLimiter : redisRateLimiter;
+        return new RateLimitFilter(subscriptionService, jwtTokenService, rateLimiter, localRateLimiter,
+                rateLimitPolicies, routeTable);
     }
 
     @Bean
@@ -25,6 +46,26 @@ public class FilterConfig {
         return registration;
     }
 
+    @Bean
+    public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilterRegistration(ResponseCache responseCache,
+            RouteTable routeTable, ProxyHeaders proxyHeaders) {
+        FilterRegistrationBean<ResponseCacheFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(new ResponseCacheFilter(responseCache, routeTable, proxyHeaders));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(2);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<CompressionFilter> compressionFilterRegistration(
+            CompressionProperties compressionProperties, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<CompressionFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(new CompressionFilter(compressionProperties, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(-1);
+        return registration;
+    }
+
     @Bean
     public FilterRegistrationBean<LoggingFilter> loggingFilterRegistration(LoggingFilter loggingFilter) {
         FilterRegistrationBean<LoggingFilter> registration = new FilterRegistrationBean<>();
@@ -33,4 +74,15 @@ public class FilterConfig {
         registration.setOrder(0);
         return registration;
     }
-}
\ No newline at end of file
+
+    @Bean
+    public FilterRegistrationBean<RequestTimingFilter> requestTimingFilterRegistration(
+            TimingProperties timingProperties, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RequestTimingFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(new RequestTimingFilter(timingProperties, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        // Ahead of the security chain so JWT verification is timed
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
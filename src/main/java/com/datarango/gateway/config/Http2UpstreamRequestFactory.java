@@ -0,0 +1,185 @@
+package com.datarango.gateway.config;
+
+import com.datarango.gateway.routing.Route;
+import com.datarango.gateway.routing.UpstreamRouteContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Upstream requests over the JDK client, which multiplexes concurrent calls to
+ * an instance over one HTTP/2 connection and falls back to HTTP/1.1 when the
+ * upstream does not negotiate h2 or accept the h2c upgrade. Calls in flight to
+ * one instance are capped at {@code maxStreamsPerConnection}, below whatever
+ * the upstream advertises; the slot is held until the response is closed.
+ * Per-route read timeouts get their own lightweight request factory over the
+ * shared client.
+ */
+class Http2UpstreamRequestFactory implements ClientHttpRequestFactory {
+
+    private final HttpClient httpClient;
+    private final JdkClientHttpRequestFactory defaultFactory;
+    private final int maxStreams;
+    private final long streamWaitMillis;
+    private final Map<String, Semaphore> streams = new ConcurrentHashMap<>();
+
+    Http2UpstreamRequestFactory(HttpClientProperties properties) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeout()))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.defaultFactory = factory(properties.getReadTimeout());
+        this.maxStreams = properties.getMaxStreamsPerConnection();
+        this.streamWaitMillis = properties.getConnectionRequestTimeout();
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        Route route = UpstreamRouteContext.get();
+        JdkClientHttpRequestFactory factory = route != null && route.readTimeoutMillis() != null
+                ? factory(route.readTimeoutMillis())
+                : defaultFactory;
+        ClientHttpRequest request = factory.createRequest(uri, httpMethod);
+        if (maxStreams <= 0) {
+            return request;
+        }
+        Semaphore permits = streams.computeIfAbsent(uri.getScheme() + "://" + uri.getAuthority(),
+                authority -> new Semaphore(maxStreams));
+        return new StreamLimitedRequest(request, permits);
+    }
+
+    private JdkClientHttpRequestFactory factory(int readTimeout) {
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        // Zero means no timeout, matching the Apache client
+        if (readTimeout > 0) {
+            factory.setReadTimeout(readTimeout);
+        }
+        return factory;
+    }
+
+    // Also streaming, so request bodies are still written straight to the upstream
+    private final class StreamLimitedRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+        private final ClientHttpRequest delegate;
+        private final Semaphore permits;
+
+        StreamLimitedRequest(ClientHttpRequest delegate, Semaphore permits) {
+            this.delegate = delegate;
+            this.permits = permits;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            try {
+                if (!permits.tryAcquire(streamWaitMillis, TimeUnit.MILLISECONDS)) {
+                    throw new HttpTimeoutException("No free HTTP/2 stream to " + getURI().getAuthority()
+                            + " within " + streamWaitMillis + "ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for an HTTP/2 stream");
+            }
+            try {
+                return new StreamLimitedResponse(delegate.execute(), permits);
+            } catch (IOException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void setBody(Body body) {
+            ((StreamingHttpOutputMessage) delegate).setBody(body);
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return delegate.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return delegate.getURI();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return delegate.getAttributes();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+    }
+
+    private static final class StreamLimitedResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        StreamLimitedResponse(ClientHttpResponse delegate, Semaphore permits) {
+            this.delegate = delegate;
+            this.permits = permits;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
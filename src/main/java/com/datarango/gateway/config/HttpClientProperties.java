@@ -0,0 +1,49 @@
+package com.datarango.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.http-client")
+public class HttpClientProperties {
+
+    // http2 negotiates HTTP/2 per upstream (ALPN for https, h2c upgrade for http)
+    // and falls back to HTTP/1.1; http1 keeps the pooled Apache client
+    private Protocol protocol = Protocol.HTTP1;
+    private int connectTimeout = 5000;
+    private int readTimeout = 30000;
+    private int connectionRequestTimeout = 2000;
+    private int maxTotalConnections = 200;
+    private int maxConnectionsPerService = 50;
+    private long idleEvictionSeconds = 30;
+    private long timeToLiveSeconds = 300;
+    private long validateAfterInactivityMillis = 2000;
+    // http2 only: calls in flight to one upstream instance, which share one
+    // connection; further calls wait up to connectionRequestTimeout. 0 leaves
+    // it to the limit the upstream advertises
+    private int maxStreamsPerConnection = 100;
+
+    // Overrides of maxConnectionsPerService keyed by service id, e.g. streaming-service: 100
+    private Map<String, Integer> serviceMaxConnections = new HashMap<>();
+
+    // SSE and chunked responses proxied by the streaming filter use a separate
+    // pool, since each open stream holds its connection
+    private Streaming streaming = new Streaming();
+
+    public int maxConnectionsFor(String serviceId) {
+        return serviceMaxConnections.getOrDefault(serviceId, maxConnectionsPerService);
+    }
+
+    @Data
+    public static class Streaming {
+        private int maxTotalConnections = 200;
+        private int maxConnectionsPerService = 100;
+    }
+
+    public enum Protocol {
+        HTTP1, HTTP2
+    }
+}
@@ -1,24 +1,169 @@
 package com.datarango.gateway.config;
 
+import com.datarango.gateway.buffer.BufferPool;
+import com.datarango.gateway.buffer.PooledBufferHttpMessageConverter;
+import com.datarango.gateway.metrics.UpstreamTiming;
+import com.datarango.gateway.routing.Route;
+import com.datarango.gateway.routing.UpstreamRouteContext;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
 public class RestClientConfig {
 
     @Bean
-    @LoadBalanced
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(5000);
-        factory.setReadTimeout(30000);
+    @Primary
+    public PoolingHttpClientConnectionManager upstreamConnectionManager(HttpClientProperties properties) {
+        return connectionManager(properties, properties.getMaxTotalConnections(),
+                properties.getMaxConnectionsPerService());
+    }
+
+    // Streamed responses hold their connection until the stream ends, so they draw
+    // from their own pool and cannot exhaust the one regular calls use.
+    @Bean
+    public PoolingHttpClientConnectionManager streamingConnectionManager(HttpClientProperties properties) {
+        return connectionManager(properties, properties.getStreaming().getMaxTotalConnections(),
+                properties.getStreaming().getMaxConnectionsPerService());
+    }
+
+    private static PoolingHttpClientConnectionManager connectionManager(HttpClientProperties properties,
+            int maxTotal, int maxPerRoute) {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(properties.getConnectTimeout()))
+                .setSocketTimeout(Timeout.ofMilliseconds(properties.getReadTimeout()))
+                .setTimeToLive(TimeValue.ofSeconds(properties.getTimeToLiveSeconds()))
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(properties.getValidateAfterInactivityMillis()))
+                .build();
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public CloseableHttpClient upstreamHttpClient(
+            @Qualifier("upstreamConnectionManager") PoolingHttpClientConnectionManager upstreamConnectionManager,
+            HttpClientProperties properties) {
+        return httpClient(upstreamConnectionManager, properties);
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient streamingHttpClient(
+            @Qualifier("streamingConnectionManager") PoolingHttpClientConnectionManager streamingConnectionManager,
+            HttpClientProperties properties) {
+        return httpClient(streamingConnectionManager, properties);
+    }
 
-        return builder
-                .requestFactory(() -> factory)
+    private static CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager,
+            HttpClientProperties properties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(properties.getConnectionRequestTimeout()))
+                .setResponseTimeout(Timeout.ofMilliseconds(properties.getReadTimeout()))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(TimeValue.ofSeconds(properties.getIdleEvictionSeconds()))
+                .evictExpiredConnections()
+                .disableCookieManagement()
+                .disableRedirectHandling()
+                .disableContentCompression()
+                .addExecInterceptorBefore(ChainElement.CONNECT.name(), "timing-connect", UpstreamTiming.BEFORE_CONNECT)
+                .addExecInterceptorBefore(ChainElement.MAIN_TRANSPORT.name(), "timing-first-byte",
+                        UpstreamTiming.AFTER_CONNECT)
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public ClientHttpRequestFactory upstreamRequestFactory(
+            @Qualifier("upstreamHttpClient") CloseableHttpClient upstreamHttpClient,
+            HttpClientProperties properties) {
+        if (properties.getProtocol() == HttpClientProperties.Protocol.HTTP2) {
+            return new Http2UpstreamRequestFactory(properties);
+        }
+        return requestFactory(upstreamHttpClient, properties);
+    }
+
+    @Bean
+    public ClientHttpRequestFactory streamingRequestFactory(
+            @Qualifier("streamingHttpClient") CloseableHttpClient streamingHttpClient,
+            @Qualifier("upstreamRequestFactory") ClientHttpRequestFactory upstreamRequestFactory,
+            HttpClientProperties properties) {
+        if (properties.getProtocol() == HttpClientProperties.Protocol.HTTP2) {
+            // Streams are multiplexed over the shared connection rather than holding one
+            return upstreamRequestFactory;
+        }
+        return requestFactory(streamingHttpClient, properties);
+    }
+
+    private static ClientHttpRequestFactory requestFactory(CloseableHttpClient httpClient,
+            HttpClientProperties properties) {
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        // Routes with their own read timeout get a per-request RequestConfig; all
+        // other calls fall back to the client defaults.
+        factory.setHttpContextFactory((method, uri) -> {
+            Route route = UpstreamRouteContext.get();
+            if (route == null || route.readTimeoutMillis() == null) {
+                return null;
+            }
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(RequestConfig.custom()
+                    .setConnectionRequestTimeout(Timeout.ofMilliseconds(properties.getConnectionRequestTimeout()))
+                    .setResponseTimeout(Timeout.ofMilliseconds(route.readTimeoutMillis()))
+                    .build());
+            return context;
+        });
+        return factory;
+    }
+
+    @Bean
+    public MeterBinder upstreamConnectionPoolMetrics(
+            @Qualifier("upstreamConnectionManager") PoolingHttpClientConnectionManager upstreamConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(upstreamConnectionManager, "upstream");
+    }
+
+    @Bean
+    public MeterBinder streamingConnectionPoolMetrics(
+            @Qualifier("streamingConnectionManager") PoolingHttpClientConnectionManager streamingConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(streamingConnectionManager, "streaming");
+    }
+
+    @Bean
+    @LoadBalanced
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+            @Qualifier("upstreamRequestFactory") ClientHttpRequestFactory upstreamRequestFactory,
+            BufferPool bufferPool) {
+        RestTemplate restTemplate = builder
+                .requestFactory(() -> upstreamRequestFactory)
                 .build();
+        // Ahead of Jackson, which would otherwise serialize a PooledBuffer as a bean
+        restTemplate.getMessageConverters().add(0, new PooledBufferHttpMessageConverter(bufferPool));
+        return restTemplate;
     }
-}
\ No newline at end of file
+}
@@ -26,6 +26,7 @@ public class SecurityConfig {
                                                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                                 .authorizeHttpRequests(auth -> auth
                                                 .requestMatchers("/", "/health", "/health/**").permitAll()
+                                                .requestMatchers("/actuator/refresh").hasRole("ADMIN")
                                                 .requestMatchers("/actuator/**").permitAll()
                                                 .requestMatchers("/api/users/auth/**").permitAll()
                                                 .requestMatchers("/api/users/login/**",
@@ -0,0 +1,46 @@
+package com.datarango.gateway.config;
+
+import lombok.Data;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Stream limits for the HTTP/2 listener. {@code server.http2.enabled}, off by
+ * default, adds HTTP/2 to the Tomcat connector: h2 over ALPN when {@code server.ssl} is
+ * configured, h2c by upgrade or prior knowledge otherwise. HTTP/1.1 clients
+ * are served unchanged.
+ */
+@Configuration
+@ConditionalOnProperty(name = "server.http2.enabled", havingValue = "true")
+@EnableConfigurationProperties(ServerHttp2Config.Http2Properties.class)
+public class ServerHttp2Config {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> http2StreamLimits(Http2Properties properties) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(properties.getMaxConcurrentStreams());
+                    http2.setMaxConcurrentStreamExecution(properties.getMaxConcurrentStreamExecution());
+                }
+            }
+        });
+    }
+
+    @Data
+    @ConfigurationProperties(prefix = "gateway.server.http2")
+    public static class Http2Properties {
+
+        // Streams a client may open on one connection
+        private int maxConcurrentStreams = 100;
+        // Streams of one connection processed at the same time; the rest wait
+        private int maxConcurrentStreamExecution = 100;
+    }
+}
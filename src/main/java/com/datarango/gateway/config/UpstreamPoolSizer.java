@@ -0,0 +1,69 @@
+package com.datarango.gateway.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.HttpHost;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * The connection pool limits per route, which is a single instance. This keeps
+ * each service under its configured connection cap by splitting the cap across
+ * the instances currently registered in Eureka. The streaming pool is split
+ * the same way against its own cap.
+ */
+@Component
+@Slf4j
+public class UpstreamPoolSizer {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final PoolingHttpClientConnectionManager streamingConnectionManager;
+    private final DiscoveryClient discoveryClient;
+    private final HttpClientProperties properties;
+
+    public UpstreamPoolSizer(
+            @Qualifier("upstreamConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+            @Qualifier("streamingConnectionManager") PoolingHttpClientConnectionManager streamingConnectionManager,
+            DiscoveryClient discoveryClient,
+            HttpClientProperties properties) {
+        this.connectionManager = connectionManager;
+        this.streamingConnectionManager = streamingConnectionManager;
+        this.discoveryClient = discoveryClient;
+        this.properties = properties;
+    }
+
+    @EventListener({ ApplicationReadyEvent.class, HeartbeatEvent.class })
+    public void resizeRoutes() {
+        for (String serviceId : discoveryClient.getServices()) {
+            List<ServiceInstance> instances = discoveryClient.getInstances(serviceId);
+            if (instances.isEmpty()) {
+                continue;
+            }
+            resize(connectionManager, serviceId, instances, properties.maxConnectionsFor(serviceId));
+            resize(streamingConnectionManager, serviceId, instances,
+                    properties.getStreaming().getMaxConnectionsPerService());
+        }
+    }
+
+    private static void resize(PoolingHttpClientConnectionManager pool, String serviceId,
+            List<ServiceInstance> instances, int serviceMax) {
+        int perInstance = Math.max(1, (serviceMax + instances.size() - 1) / instances.size());
+        for (ServiceInstance instance : instances) {
+            String scheme = instance.isSecure() ? "https" : "http";
+            HttpHost target = new HttpHost(scheme, instance.getHost(), instance.getPort());
+            HttpRoute route = new HttpRoute(target, null, instance.isSecure());
+            if (pool.getMaxPerRoute(route) != perInstance) {
+                pool.setMaxPerRoute(route, perInstance);
+                log.debug("Pool limit for {} ({}) set to {}", serviceId, route, perInstance);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.datarango.gateway.config;
+
+import com.datarango.gateway.websocket.WebSocketProxyHandler;
+import com.datarango.gateway.websocket.WebSocketProxyProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+import org.springframework.web.socket.server.support.WebSocketHttpRequestHandler;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WebSocket upgrades are not mapped to a URL here; {@code GatewayController}
+ * hands upgrade requests on websocket routes to this handler after the
+ * filter chain has authenticated and rate limited them.
+ */
+@Configuration
+@EnableConfigurationProperties(WebSocketProxyProperties.class)
+public class WebSocketProxyConfig {
+
+    @Bean
+    public WebSocketHttpRequestHandler webSocketProxyRequestHandler(WebSocketProxyHandler handler) {
+        WebSocketHttpRequestHandler requestHandler = new WebSocketHttpRequestHandler(handler,
+                new DefaultHandshakeHandler());
+        requestHandler.setHandshakeInterceptors(List.of(new HandshakeInterceptor() {
+            @Override
+            public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                    WebSocketHandler wsHandler, Map<String, Object> attributes) {
+                if (request instanceof ServletServerHttpRequest servletRequest) {
+                    Object target = servletRequest.getServletRequest()
+                            .getAttribute(WebSocketProxyHandler.TARGET_ATTRIBUTE);
+                    if (target != null) {
+                        attributes.put(WebSocketProxyHandler.TARGET_ATTRIBUTE, target);
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                    WebSocketHandler wsHandler, Exception exception) {
+            }
+        }));
+        return requestHandler;
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer(WebSocketProxyProperties properties) {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize(properties.getMaxMessageBytes());
+        container.setMaxBinaryMessageBufferSize(properties.getMaxMessageBytes());
+        container.setMaxSessionIdleTimeout(properties.getIdleTimeoutMillis());
+        container.setAsyncSendTimeout((long) properties.getSendTimeLimitMillis());
+        return container;
+    }
+}
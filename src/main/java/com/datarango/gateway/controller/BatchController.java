@@ -0,0 +1,65 @@
+package com.datarango.gateway.controller;
+
+import com.datarango.gateway.batch.BatchService;
+import com.datarango.gateway.dto.ApiResponse;
+import com.datarango.gateway.dto.BatchRequest;
+import com.datarango.gateway.dto.BatchResult;
+import com.datarango.gateway.exception.NotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Fans a list of sub-requests out to the routed services. The batch passes
+ * authentication and rate limiting once; sub-requests go straight to the
+ * upstreams. Clients accepting application/x-ndjson get each result as soon
+ * as it completes, everyone else gets all results in request order.
+ */
+@RestController
+@RequiredArgsConstructor
+public class BatchController {
+
+        private final BatchService batchService;
+        private final ObjectMapper objectMapper;
+
+        @PostMapping(value = "/api/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+        public ApiResponse<List<BatchResult>> batch(@RequestBody BatchRequest request,
+                        HttpServletRequest servletRequest, HttpServletResponse response) {
+                ensureEnabled();
+                return ApiResponse.success(batchService.execute(request, servletRequest, response, result -> {
+                }));
+        }
+
+        @PostMapping(value = "/api/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+        public void batchStream(@RequestBody BatchRequest request, HttpServletRequest servletRequest,
+                        HttpServletResponse response) throws IOException {
+                ensureEnabled();
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                ServletOutputStream out = response.getOutputStream();
+                batchService.execute(request, servletRequest, response, result -> {
+                        try {
+                                out.write(objectMapper.writeValueAsBytes(result));
+                                out.write('\n');
+                                out.flush();
+                        } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                        }
+                });
+        }
+
+        private void ensureEnabled() {
+                if (!batchService.isEnabled()) {
+                        throw new NotFoundException("Batch requests are disabled");
+                }
+        }
+}
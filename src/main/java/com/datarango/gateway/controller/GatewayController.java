@@ -1,20 +1,52 @@
 package com.datarango.gateway.controller;
 
+import com.datarango.gateway.buffer.BodyTooLargeException;
+import com.datarango.gateway.buffer.BufferPool;
+import com.datarango.gateway.buffer.PooledBuffer;
 import com.datarango.gateway.dto.ApiResponse;
+import com.datarango.gateway.exception.BadGatewayException;
+import com.datarango.gateway.exception.NotFoundException;
+import com.datarango.gateway.exception.PayloadTooLargeException;
+import com.datarango.gateway.headers.ProxyHeaders;
+import com.datarango.gateway.resilience.UpstreamRetryExecutor;
+import com.datarango.gateway.routing.Route;
+import com.datarango.gateway.routing.RouteTable;
+import com.datarango.gateway.routing.UpstreamRouteContext;
 import com.datarango.gateway.service.EurekaMicroserviceClient;
+import com.datarango.gateway.service.StreamingProxyClient;
+import com.datarango.gateway.websocket.WebSocketProxyHandler;
 import io.swagger.v3.oas.annotations.Hidden;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.socket.server.support.WebSocketHttpRequestHandler;
 
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
 
 @RestController
 @RequiredArgsConstructor
 public class GatewayController {
 
+        private final RouteTable routeTable;
         private final EurekaMicroserviceClient microserviceClient;
+        private final StreamingProxyClient streamingProxyClient;
+        private final WebSocketHttpRequestHandler webSocketProxyRequestHandler;
+        private final ProxyHeaders proxyHeaders;
+        private final BufferPool bufferPool;
+
+        @Value("${gateway.proxy.streaming.enabled:false}")
+        private boolean streamingEnabled;
 
         @GetMapping("/")
         public ApiResponse<Object> welcome() {
@@ -22,48 +54,112 @@ public class GatewayController {
         }
 
         @Hidden
-        @RequestMapping(value = "/api/users/**", method = { RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT,
-                        RequestMethod.DELETE })
-        public ResponseEntity<String> routeToUserService(HttpServletRequest request,
-                        @RequestBody(required = false) Object body) {
-                String endpoint = request.getRequestURI().replace("/api/users", "");
-                String method = request.getMethod();
-                return microserviceClient.callUserService(endpoint,
-                                method != null ? HttpMethod.valueOf(method) : HttpMethod.GET, body, String.class);
+        @RequestMapping("/api/**")
+        public ResponseEntity<byte[]> route(HttpServletRequest request, HttpServletResponse response)
+                        throws IOException, ServletException, HttpRequestMethodNotSupportedException {
+                Route route = routeTable.resolve(request);
+                if (route == null) {
+                        throw new NotFoundException("No route for " + request.getRequestURI());
+                }
+                if (!route.allows(request.getMethod())) {
+                        throw new HttpRequestMethodNotSupportedException(request.getMethod(), route.methods());
+                }
+
+                String endpoint = route.endpoint(request.getRequestURI());
+                String query = request.getQueryString();
+                if (route.hasFilter(Route.WEBSOCKET_FILTER) && "websocket".equalsIgnoreCase(
+                                request.getHeader(HttpHeaders.UPGRADE))) {
+                        request.setAttribute(WebSocketProxyHandler.TARGET_ATTRIBUTE, new WebSocketProxyHandler.Target(
+                                        route.serviceId(), query != null ? endpoint + "?" + query : endpoint));
+                        webSocketProxyRequestHandler.handleRequest(request, response);
+                        return null;
+                }
+
+                UpstreamRouteContext.set(route);
+                try {
+                        if (streamingEnabled || route.hasFilter(Route.STREAMING_FILTER)) {
+                                streamingProxyClient.proxy(route, endpoint, request, response);
+                                return null;
+                        }
+                        HttpHeaders headers = new HttpHeaders();
+                        proxyHeaders.copyRequestHeaders(request, response, route, headers);
+                        String target = query != null ? endpoint + "?" + query : endpoint;
+                        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+                        // A losing hedge may still be running after the response is sent, so
+                        // hedged routes keep their bodies on the heap instead of in the pool
+                        if (!bufferPool.isEnabled() || route.hasFilter(UpstreamRetryExecutor.HEDGE_FILTER)) {
+                                return callBuffered(route, target, method, headers, request, response);
+                        }
+                        callPooled(route, target, method, headers, request, response);
+                        return null;
+                } finally {
+                        UpstreamRouteContext.clear();
+                }
         }
 
-        @Hidden
-        @RequestMapping(value = "/api/core/**", method = { RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT,
-                        RequestMethod.DELETE })
-        public ResponseEntity<String> routeToCoreService(HttpServletRequest request,
-                        @RequestBody(required = false) Object body) {
-                String endpoint = request.getRequestURI().replace("/api/core", "");
-                String method = request.getMethod();
-                return microserviceClient.callCoreService(endpoint,
-                                method != null ? HttpMethod.valueOf(method) : HttpMethod.GET, body, String.class);
+        private ResponseEntity<byte[]> callBuffered(Route route, String target, HttpMethod method,
+                        HttpHeaders headers, HttpServletRequest request, HttpServletResponse response)
+                        throws IOException {
+                byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+                ResponseEntity<byte[]> upstream;
+                try {
+                        upstream = microserviceClient.callService(route.serviceId(), target, method, headers,
+                                        body.length > 0 ? body : null, byte[].class);
+                } catch (HttpStatusCodeException e) {
+                        // Upstream 4xx/5xx are relayed as sent, not turned into gateway errors
+                        proxyHeaders.copyResponseHeaders(e.getResponseHeaders(), route, response);
+                        return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+                }
+                // Headers go straight onto the servlet response; the entity only carries
+                // the status and body
+                proxyHeaders.copyResponseHeaders(upstream.getHeaders(), route, response);
+                return ResponseEntity.status(upstream.getStatusCode()).body(upstream.getBody());
         }
 
-        @Hidden
-        @RequestMapping(value = "/api/streaming/**", method = { RequestMethod.GET, RequestMethod.POST,
-                        RequestMethod.PUT,
-                        RequestMethod.DELETE })
-        public ResponseEntity<String> routeToStreamingService(HttpServletRequest request,
-                        @RequestBody(required = false) Object body) {
-                String endpoint = request.getRequestURI().replace("/api/streaming", "");
-                String method = request.getMethod();
-                return microserviceClient.callStreamingService(endpoint,
-                                method != null ? HttpMethod.valueOf(method) : HttpMethod.GET, body, String.class);
+        // Request and response bodies live in pooled direct buffers for the length
+        // of the call and are copied to the sockets through a pooled transfer array.
+        private void callPooled(Route route, String target, HttpMethod method, HttpHeaders headers,
+                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+                try (PooledBuffer body = readPooledBody(request)) {
+                        ResponseEntity<PooledBuffer> upstream;
+                        try {
+                                upstream = microserviceClient.callService(route.serviceId(), target, method, headers,
+                                                body, PooledBuffer.class);
+                        } catch (HttpStatusCodeException e) {
+                                response.setStatus(e.getStatusCode().value());
+                                proxyHeaders.copyResponseHeaders(e.getResponseHeaders(), route, response);
+                                response.getOutputStream().write(e.getResponseBodyAsByteArray());
+                                return;
+                        } catch (RestClientException e) {
+                                // RestTemplate wraps failures of the body converter
+                                if (e.getCause() instanceof BodyTooLargeException tooLarge) {
+                                        throw new BadGatewayException("Response from " + route.serviceId() + ": "
+                                                        + tooLarge.getMessage());
+                                }
+                                throw e;
+                        }
+                        try (PooledBuffer responseBody = upstream.getBody()) {
+                                response.setStatus(upstream.getStatusCode().value());
+                                proxyHeaders.copyResponseHeaders(upstream.getHeaders(), route, response);
+                                if (responseBody != null) {
+                                        responseBody.writeTo(response.getOutputStream());
+                                }
+                        }
+                }
         }
 
-        @Hidden
-        @RequestMapping(value = "/api/messaging/**", method = { RequestMethod.GET, RequestMethod.POST,
-                        RequestMethod.PUT,
-                        RequestMethod.DELETE })
-        public ResponseEntity<String> routeToMessagingService(HttpServletRequest request,
-                        @RequestBody(required = false) Object body) {
-                String endpoint = request.getRequestURI().replace("/api/messaging", "");
-                String method = request.getMethod();
-                return microserviceClient.callMessagingService(endpoint,
-                                method != null ? HttpMethod.valueOf(method) : HttpMethod.GET, body, String.class);
+        private PooledBuffer readPooledBody(HttpServletRequest request) throws IOException {
+                if (!hasBody(request)) {
+                        return null;
+                }
+                try {
+                        return bufferPool.read(request.getInputStream(), request.getContentLengthLong());
+                } catch (BodyTooLargeException e) {
+                        throw new PayloadTooLargeException(e.getMessage());
+                }
+        }
+
+        private boolean hasBody(HttpServletRequest request) {
+                return request.getContentLengthLong() > 0 || request.getHeader(HttpHeaders.TRANSFER_ENCODING) != null;
         }
-}
\ No newline at end of file
+}
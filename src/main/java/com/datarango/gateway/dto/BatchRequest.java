@@ -0,0 +1,25 @@
+package com.datarango.gateway.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class BatchRequest {
+    private List<Item> requests = new ArrayList<>();
+    // Overall deadline for the batch; capped by gateway.batch.max-timeout-millis
+    private Long timeoutMillis;
+
+    @Data
+    public static class Item {
+        private String id;
+        private String method = "GET";
+        // Gateway path, e.g. /api/users/42?fields=name
+        private String path;
+        private Map<String, String> headers;
+        private JsonNode body;
+    }
+}
@@ -0,0 +1,22 @@
+package com.datarango.gateway.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResult {
+    private String id;
+    private int status;
+    private JsonNode body;
+    private String error;
+
+    public static BatchResult error(String id, int status, String error) {
+        return new BatchResult(id, status, null, error);
+    }
+}
@@ -0,0 +1,7 @@
+package com.datarango.gateway.exception;
+
+public class BadGatewayException extends RuntimeException {
+    public BadGatewayException(String message) {
+        super(message);
+    }
+}
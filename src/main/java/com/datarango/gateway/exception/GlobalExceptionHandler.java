@@ -8,6 +8,7 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -86,6 +87,32 @@ public class GlobalExceptionHandler {
                 return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
         }
 
+        @ExceptionHandler(PayloadTooLargeException.class)
+        public ResponseEntity<ApiResponse<Object>> handlePayloadTooLargeException(PayloadTooLargeException ex,
+                        WebRequest request) {
+                log.error("Payload too large: {}", ex.getMessage());
+                ApiResponse<Object> response = new ApiResponse<>(
+                                false,
+                                "Payload too large",
+                                null,
+                                ex.getMessage(),
+                                HttpStatus.PAYLOAD_TOO_LARGE.value());
+                return new ResponseEntity<>(response, HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+
+        @ExceptionHandler(BadGatewayException.class)
+        public ResponseEntity<ApiResponse<Object>> handleBadGatewayException(BadGatewayException ex,
+                        WebRequest request) {
+                log.error("Bad gateway: {}", ex.getMessage());
+                ApiResponse<Object> response = new ApiResponse<>(
+                                false,
+                                "Bad gateway",
+                                null,
+                                ex.getMessage(),
+                                HttpStatus.BAD_GATEWAY.value());
+                return new ResponseEntity<>(response, HttpStatus.BAD_GATEWAY);
+        }
+
         @ExceptionHandler(NoHandlerFoundException.class)
         public ResponseEntity<ApiResponse<Object>> handleNoHandlerFoundException(NoHandlerFoundException ex,
                         WebRequest request) {
@@ -112,6 +139,21 @@ public class GlobalExceptionHandler {
                 return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
         }
 
+        @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
+        public ResponseEntity<ApiResponse<Object>> handleMethodNotSupportedException(
+                        HttpRequestMethodNotSupportedException ex, WebRequest request) {
+                log.error("Method not allowed: {}", ex.getMessage());
+                ApiResponse<Object> response = new ApiResponse<>(
+                                false,
+                                "Method not allowed",
+                                null,
+                                ex.getMessage(),
+                                HttpStatus.METHOD_NOT_ALLOWED.value());
+                return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED)
+                                .headers(ex.getHeaders())
+                                .body(response);
+        }
+
         @ExceptionHandler(MethodArgumentNotValidException.class)
         public ResponseEntity<ApiResponse<Map<String, String>>> handleValidationExceptions(
                         MethodArgumentNotValidException ex) {
@@ -0,0 +1,7 @@
+package com.datarango.gateway.exception;
+
+public class PayloadTooLargeException extends RuntimeException {
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
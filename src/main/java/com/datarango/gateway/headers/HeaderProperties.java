@@ -0,0 +1,14 @@
+package com.datarango.gateway.headers;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.headers")
+public class HeaderProperties {
+
+    // Adds X-Forwarded-For/Proto/Host/Prefix to upstream requests
+    private boolean forwarded = true;
+    // Reused from the client when well-formed, generated otherwise; empty disables
+    private String correlationIdHeader = "X-Correlation-ID";
+}
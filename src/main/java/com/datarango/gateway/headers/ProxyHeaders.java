@@ -0,0 +1,219 @@
+package com.datarango.gateway.headers;
+
+import com.datarango.gateway.routing.Route;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Header transform between the client and an upstream, shared by the buffered
+ * and streaming proxy paths. Headers are copied name by name straight into the
+ * outgoing message: hop-by-hop headers and those listed in Connection are
+ * dropped, forwarding and correlation headers are set, and the route's
+ * remove and add rules are applied last.
+ */
+@Component
+@EnableConfigurationProperties(HeaderProperties.class)
+public class ProxyHeaders {
+
+    public static final String CORRELATION_ID_ATTRIBUTE = ProxyHeaders.class.getName() + ".correlationId";
+
+    static final String X_FORWARDED_FOR = "X-Forwarded-For";
+    static final String X_FORWARDED_PROTO = "X-Forwarded-Proto";
+    static final String X_FORWARDED_HOST = "X-Forwarded-Host";
+    static final String X_FORWARDED_PREFIX = "X-Forwarded-Prefix";
+
+    private static final int MAX_CORRELATION_ID_LENGTH = 128;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final Set<String> HOP_BY_HOP_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private static final Set<String> FORWARDED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        HOP_BY_HOP_HEADERS.addAll(List.of(
+                "Connection",
+                "Keep-Alive",
+                "Proxy-Authenticate",
+                "Proxy-Authorization",
+                "Proxy-Connection",
+                "TE",
+                "Trailer",
+                "Transfer-Encoding",
+                "Upgrade",
+                "Host"));
+        FORWARDED_HEADERS.addAll(List.of(X_FORWARDED_FOR, X_FORWARDED_PROTO, X_FORWARDED_HOST, X_FORWARDED_PREFIX));
+    }
+
+    private final HeaderProperties properties;
+    private final String correlationIdHeader;
+
+    public ProxyHeaders(HeaderProperties properties) {
+        this.properties = properties;
+        String header = properties.getCorrelationIdHeader();
+        this.correlationIdHeader = header != null && !header.isBlank() ? header : null;
+    }
+
+    /**
+     * Copies the client's end-to-end headers onto the upstream request. The
+     * correlation ID sent upstream is also set on {@code response}.
+     */
+    public void copyRequestHeaders(HttpServletRequest request, HttpServletResponse response, Route route,
+            HttpHeaders target) {
+        String connection = request.getHeader(HttpHeaders.CONNECTION);
+        Enumeration<String> names = request.getHeaderNames();
+        while (names.hasMoreElements()) {
+            String name = names.nextElement();
+            if (HOP_BY_HOP_HEADERS.contains(name) || listedIn(connection, name)
+                    || (properties.isForwarded() && FORWARDED_HEADERS.contains(name))
+                    || (correlationIdHeader != null && correlationIdHeader.equalsIgnoreCase(name))
+                    || route.requestHeaders().removes(name)) {
+                continue;
+            }
+            Enumeration<String> values = request.getHeaders(name);
+            while (values.hasMoreElements()) {
+                target.add(name, values.nextElement());
+            }
+        }
+
+        if (properties.isForwarded()) {
+            String forwardedFor = request.getHeader(X_FORWARDED_FOR);
+            target.set(X_FORWARDED_FOR, forwardedFor != null
+                    ? forwardedFor + ", " + request.getRemoteAddr()
+                    : request.getRemoteAddr());
+            // An earlier proxy saw the original scheme and host; keep what it sent
+            String proto = request.getHeader(X_FORWARDED_PROTO);
+            target.set(X_FORWARDED_PROTO, proto != null ? proto : request.getScheme());
+            String host = request.getHeader(X_FORWARDED_HOST);
+            if (host == null) {
+                host = request.getHeader(HttpHeaders.HOST);
+            }
+            if (host != null) {
+                target.set(X_FORWARDED_HOST, host);
+            }
+            if (route.stripPrefix()) {
+                target.set(X_FORWARDED_PREFIX, route.prefix());
+            }
+        }
+
+        if (correlationIdHeader != null) {
+            String correlationId = correlationId(request);
+            target.set(correlationIdHeader, correlationId);
+            if (response != null) {
+                response.setHeader(correlationIdHeader, correlationId);
+            }
+        }
+
+        route.requestHeaders().addTo(target);
+    }
+
+    /**
+     * Copies the upstream's end-to-end response headers onto the client
+     * response, which must not be committed yet.
+     */
+    public void copyResponseHeaders(HttpHeaders upstream, Route route, HttpServletResponse response) {
+        if (upstream != null) {
+            String connection = upstream.getFirst(HttpHeaders.CONNECTION);
+            for (Map.Entry<String, List<String>> header : upstream.entrySet()) {
+                String name = header.getKey();
+                if (HOP_BY_HOP_HEADERS.contains(name) || listedIn(connection, name)
+                        || (correlationIdHeader != null && correlationIdHeader.equalsIgnoreCase(name))
+                        || route.responseHeaders().removes(name)) {
+                    continue;
+                }
+                for (String value : header.getValue()) {
+                    response.addHeader(name, value);
+                }
+            }
+        }
+        route.responseHeaders().addTo(response);
+    }
+
+    /**
+     * The configured correlation ID header, or null when correlation IDs are off.
+     */
+    public String correlationIdHeader() {
+        return correlationIdHeader;
+    }
+
+    /**
+     * The correlation ID of this request: the client's, when it sent a usable
+     * one, or a new random ID. Stable for the lifetime of the request.
+     */
+    public String correlationId(HttpServletRequest request) {
+        Object existing = request.getAttribute(CORRELATION_ID_ATTRIBUTE);
+        if (existing instanceof String id) {
+            return id;
+        }
+        String id = correlationIdHeader != null ? request.getHeader(correlationIdHeader) : null;
+        if (!isValidCorrelationId(id)) {
+            id = generateCorrelationId();
+        }
+        request.setAttribute(CORRELATION_ID_ATTRIBUTE, id);
+        return id;
+    }
+
+    // Restricted to token characters so a client cannot inject into upstream logs
+    static boolean isValidCorrelationId(String id) {
+        if (id == null || id.isEmpty() || id.length() > MAX_CORRELATION_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == ':')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 128 random bits as hex; ThreadLocalRandom avoids the shared SecureRandom behind UUID
+    static String generateCorrelationId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] chars = new char[32];
+        for (int half = 0; half < 2; half++) {
+            long bits = random.nextLong();
+            for (int i = 0; i < 16; i++) {
+                chars[half * 16 + i] = HEX[(int) (bits >>> (60 - 4 * i)) & 0xF];
+            }
+        }
+        return new String(chars);
+    }
+
+    // Comma-separated tokens of a Connection header, matched without splitting
+    static boolean listedIn(String connection, String name) {
+        if (connection == null) {
+            return false;
+        }
+        int length = connection.length();
+        int start = 0;
+        while (start < length) {
+            int end = connection.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            int from = start;
+            int to = end;
+            while (from < to && Character.isWhitespace(connection.charAt(from))) {
+                from++;
+            }
+            while (to > from && Character.isWhitespace(connection.charAt(to - 1))) {
+                to--;
+            }
+            if (to - from == name.length() && connection.regionMatches(true, from, name, 0, name.length())) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package com.datarango.gateway.loadbalancer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class BalancerProperties {
+
+    // p2c or round-robin (the Spring Cloud LoadBalancer default)
+    private String strategy = "p2c";
+    // Time constant of the latency EWMA
+    private long decayMillis = 10000;
+    private Ejection ejection = new Ejection();
+
+    @Data
+    public static class Ejection {
+        private int consecutiveFailures = 5;
+        // Ejection time grows with each consecutive ejection up to maxMillis
+        private long baseMillis = 30000;
+        private long maxMillis = 300000;
+    }
+}
@@ -0,0 +1,81 @@
+package com.datarango.gateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Outstanding requests, peak-EWMA latency and failure streak for one instance.
+ */
+final class InstanceStats {
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private long ewmaNanos;
+    private long lastSampleNanos;
+    private int consecutiveFailures;
+    private int ejections;
+    private volatile long ejectedUntilNanos;
+
+    void onStart() {
+        outstanding.incrementAndGet();
+    }
+
+    void onCancel() {
+        outstanding.updateAndGet(current -> Math.max(0, current - 1));
+    }
+
+    /**
+     * Records a finished call and returns true if it got the instance ejected.
+     */
+    synchronized boolean onComplete(long rttNanos, boolean failed, long now, BalancerProperties properties) {
+        outstanding.updateAndGet(current -> Math.max(0, current - 1));
+        if (rttNanos > 0) {
+            updateEwma(rttNanos, now, properties.getDecayMillis() * 1_000_000);
+        }
+
+        if (!failed) {
+            consecutiveFailures = 0;
+            ejections = 0;
+            return false;
+        }
+        BalancerProperties.Ejection ejection = properties.getEjection();
+        if (++consecutiveFailures < ejection.getConsecutiveFailures()) {
+            return false;
+        }
+        consecutiveFailures = 0;
+        ejections++;
+        long millis = Math.min(ejection.getBaseMillis() * ejections, ejection.getMaxMillis());
+        ejectedUntilNanos = now + millis * 1_000_000;
+        return true;
+    }
+
+    boolean isEjected(long now) {
+        return now - ejectedUntilNanos < 0;
+    }
+
+    /**
+     * Expected wait for a new request: latency scaled by the queue in front of it.
+     * Instances without samples cost nothing so they get probed first.
+     */
+    double cost() {
+        long ewma;
+        synchronized (this) {
+            ewma = ewmaNanos;
+        }
+        return (double) (ewma + 1) * (outstanding.get() + 1);
+    }
+
+    int getOutstanding() {
+        return outstanding.get();
+    }
+
+    private void updateEwma(long rttNanos, long now, long decayNanos) {
+        if (lastSampleNanos == 0 || rttNanos > ewmaNanos) {
+            // Peak sensitive: jump straight to a worse latency, decay slowly back down
+            ewmaNanos = rttNanos;
+        } else {
+            double weight = Math.exp(-(double) (now - lastSampleNanos) / decayNanos);
+            ewmaNanos = (long) (ewmaNanos * weight + rttNanos * (1 - weight));
+        }
+        lastSampleNanos = now;
+    }
+}
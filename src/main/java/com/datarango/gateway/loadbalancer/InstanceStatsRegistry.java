@@ -0,0 +1,67 @@
+package com.datarango.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-instance load statistics shared by every service's {@link P2cLoadBalancer}.
+ * Fed by {@link InstanceStatsLifecycle} for RestTemplate calls and directly by
+ * the streaming proxy.
+ */
+@Slf4j
+public class InstanceStatsRegistry {
+
+    private final BalancerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    public InstanceStatsRegistry(BalancerProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void onStart(ServiceInstance instance) {
+        statsFor(instance).onStart();
+    }
+
+    public void onCancel(ServiceInstance instance) {
+        statsFor(instance).onCancel();
+    }
+
+    public void onComplete(ServiceInstance instance, long rttNanos, boolean failed) {
+        if (statsFor(instance).onComplete(rttNanos, failed, System.nanoTime(), properties)) {
+            log.warn("Ejecting {} instance {}:{} after repeated failures", instance.getServiceId(),
+                    instance.getHost(), instance.getPort());
+            Counter.builder("gateway.loadbalancer.ejections")
+                    .description("Instances temporarily removed from load balancing after repeated failures")
+                    .tag("service", instance.getServiceId())
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    boolean isEjected(ServiceInstance instance, long now) {
+        return statsFor(instance).isEjected(now);
+    }
+
+    double cost(ServiceInstance instance) {
+        return statsFor(instance).cost();
+    }
+
+    int outstanding(ServiceInstance instance) {
+        return statsFor(instance).getOutstanding();
+    }
+
+    private InstanceStats statsFor(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), k -> new InstanceStats());
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+}
@@ -0,0 +1,104 @@
+package com.datarango.gateway.metrics;
+
+/**
+ * Phase timings of the request in progress on this thread. Code without access
+ * to the servlet request (the HTTP client, Redis calls) records through the
+ * thread-local; calls moved to other threads, such as hedges, are not timed.
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+    private static final TimingPhase[] PHASES = TimingPhase.values();
+
+    private final long startNanos;
+    private final long[] phaseNanos = new long[PHASES.length];
+    private long upstreamStartNanos = -1;
+    private long connectStartNanos;
+
+    RequestTiming(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    static RequestTiming begin() {
+        RequestTiming timing = new RequestTiming(System.nanoTime());
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    public static void record(TimingPhase phase, long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(phase, nanos);
+        }
+    }
+
+    void add(TimingPhase phase, long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    long get(TimingPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    void upstreamStarted(long now) {
+        if (upstreamStartNanos < 0) {
+            upstreamStartNanos = now;
+            add(TimingPhase.FILTERS, now - startNanos);
+        }
+        connectStartNanos = now;
+    }
+
+    long getConnectStartNanos() {
+        return connectStartNanos;
+    }
+
+    /**
+     * Closes the derived phases at {@code now} and returns the total elapsed time.
+     */
+    long complete(long now) {
+        long total = now - startNanos;
+        if (upstreamStartNanos < 0) {
+            phaseNanos[TimingPhase.FILTERS.ordinal()] = total;
+        }
+        phaseNanos[TimingPhase.GATEWAY.ordinal()] = Math.max(0,
+                total - get(TimingPhase.UPSTREAM_CONNECT) - get(TimingPhase.UPSTREAM_FIRST_BYTE));
+        return total;
+    }
+
+    /**
+     * Formats the phases recorded so far as a Server-Timing header value.
+     */
+    String serverTiming(long now) {
+        long total = complete(now);
+        StringBuilder header = new StringBuilder(160);
+        for (TimingPhase phase : PHASES) {
+            long nanos = phaseNanos[phase.ordinal()];
+            if (nanos > 0) {
+                appendMetric(header, phase.getTag(), nanos);
+            }
+        }
+        appendMetric(header, "total", total);
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        long micros = nanos / 1_000;
+        header.append(name).append(";dur=").append(micros / 1_000).append('.');
+        long fraction = micros % 1_000;
+        if (fraction < 100) {
+            header.append(fraction < 10 ? "00" : "0");
+        }
+        header.append(fraction);
+    }
+}
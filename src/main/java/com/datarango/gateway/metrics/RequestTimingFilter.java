@@ -0,0 +1,135 @@
+package com.datarango.gateway.metrics;
+
+import com.datarango.gateway.routing.Route;
+import com.datarango.gateway.routing.RouteTable;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every API request end to end and per {@link TimingPhase}. Runs ahead
+ * of Spring Security so JWT verification falls inside the measurement.
+ * Timers publish Prometheus histogram buckets and are cached per tag set to
+ * keep meter lookups off the request path.
+ */
+public class RequestTimingFilter implements Filter {
+
+    private static final String UNMATCHED = "unmatched";
+    private static final String OTHER_METHOD = "OTHER";
+    private static final HttpMethod[] METHODS = HttpMethod.values();
+    private static final TimingPhase[] PHASES = TimingPhase.values();
+
+    private final TimingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<RequestKey, Timer> requestTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer[]> phaseTimers = new ConcurrentHashMap<>();
+
+    private record RequestKey(String route, String method, int statusClass) {
+    }
+
+    public RequestTimingFilter(TimingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        if (!properties.isEnabled()) {
+            chain.doFilter(req, res);
+            return;
+        }
+
+        HttpServletRequest request = (HttpServletRequest) req;
+        HttpServletResponse response = (HttpServletResponse) res;
+        RequestTiming timing = RequestTiming.begin();
+        ServerTimingResponseWrapper wrapper = serverTimingRequested(request)
+                ? new ServerTimingResponseWrapper(response, timing)
+                : null;
+        try {
+            chain.doFilter(request, wrapper != null ? wrapper : response);
+            if (wrapper != null) {
+                wrapper.writeHeader();
+            }
+        } finally {
+            RequestTiming.end();
+            long total = timing.complete(System.nanoTime());
+            Object matched = request.getAttribute(RouteTable.ROUTE_ATTRIBUTE);
+            record(matched instanceof Route route ? route : null, methodTag(request.getMethod()),
+                    response.getStatus(), timing, total);
+        }
+    }
+
+    // Clients choose the method token, so unknown ones share a tag instead of
+    // each creating a new timer series
+    static String methodTag(String method) {
+        for (HttpMethod known : METHODS) {
+            if (known.name().equals(method)) {
+                return known.name();
+            }
+        }
+        return OTHER_METHOD;
+    }
+
+    private boolean serverTimingRequested(HttpServletRequest request) {
+        return switch (properties.getServerTiming()) {
+            case ALWAYS -> true;
+            case ON_REQUEST -> request.getHeader(properties.getServerTimingRequestHeader()) != null;
+            case NEVER -> false;
+        };
+    }
+
+    private void record(Route route, String method, int status, RequestTiming timing, long total) {
+        String routeId = route != null ? route.id() : UNMATCHED;
+        String serviceId = route != null ? route.serviceId() : UNMATCHED;
+        requestTimers.computeIfAbsent(new RequestKey(routeId, method, status / 100),
+                key -> histogram(Timer.builder("gateway.requests")
+                        .description("Gateway requests by route, upstream service, method and status class")
+                        .tag("route", key.route())
+                        .tag("service", serviceId)
+                        .tag("method", key.method())
+                        .tag("status", key.statusClass() + "xx")))
+                .record(total, TimeUnit.NANOSECONDS);
+
+        Timer[] timers = phaseTimers.computeIfAbsent(routeId, id -> phaseTimers(id, serviceId));
+        for (TimingPhase phase : PHASES) {
+            long nanos = timing.get(phase);
+            if (nanos > 0) {
+                timers[phase.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private Timer[] phaseTimers(String routeId, String serviceId) {
+        Timer[] timers = new Timer[PHASES.length];
+        for (TimingPhase phase : PHASES) {
+            timers[phase.ordinal()] = histogram(Timer.builder("gateway.request.phase")
+                    .description("Time spent in each phase of a gateway request")
+                    .tag("route", routeId)
+                    .tag("service", serviceId)
+                    .tag("phase", phase.getTag()));
+        }
+        return timers;
+    }
+
+    private Timer histogram(Timer.Builder builder) {
+        return builder
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(properties.getHistogramMinMillis()))
+                .maximumExpectedValue(Duration.ofMillis(properties.getHistogramMaxMillis()))
+                .register(meterRegistry);
+    }
+}
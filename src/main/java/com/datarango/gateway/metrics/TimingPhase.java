@@ -0,0 +1,30 @@
+package com.datarango.gateway.metrics;
+
+/**
+ * Parts of a gateway request that are timed separately. Names are used as the
+ * {@code phase} tag and as Server-Timing metric names.
+ */
+public enum TimingPhase {
+
+    // Request start until the first upstream call, i.e. the servlet filter chain
+    FILTERS("filters"),
+    JWT("jwt"),
+    REDIS("redis"),
+    SUBSCRIPTION("subscription"),
+    // Pool lease plus TCP/TLS connect; near zero on a reused connection
+    UPSTREAM_CONNECT("upstream_connect"),
+    // Request sent until upstream response headers arrive
+    UPSTREAM_FIRST_BYTE("upstream_first_byte"),
+    // Everything not spent waiting on the upstream
+    GATEWAY("gateway");
+
+    private final String tag;
+
+    TimingPhase(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,21 @@
+package com.datarango.gateway.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.timing")
+public class TimingProperties {
+
+    private boolean enabled = true;
+    private ServerTiming serverTiming = ServerTiming.ON_REQUEST;
+    // Clients send this header (any value) to get a Server-Timing breakdown back
+    private String serverTimingRequestHeader = "X-Server-Timing";
+    // Bounds of the Prometheus histogram buckets
+    private long histogramMinMillis = 1;
+    private long histogramMaxMillis = 60000;
+
+    public enum ServerTiming {
+        NEVER, ON_REQUEST, ALWAYS
+    }
+}
@@ -0,0 +1,36 @@
+package com.datarango.gateway.metrics;
+
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+
+/**
+ * HttpClient exec chain hooks that split an upstream call into connect and
+ * first-byte phases. {@link #BEFORE_CONNECT} goes in front of the connect
+ * step, {@link #AFTER_CONNECT} in front of the main transport.
+ */
+public final class UpstreamTiming {
+
+    public static final ExecChainHandler BEFORE_CONNECT = (request, scope, chain) -> {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.upstreamStarted(System.nanoTime());
+        }
+        return chain.proceed(request, scope);
+    };
+
+    public static final ExecChainHandler AFTER_CONNECT = (request, scope, chain) -> {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            return chain.proceed(request, scope);
+        }
+        long connected = System.nanoTime();
+        timing.add(TimingPhase.UPSTREAM_CONNECT, connected - timing.getConnectStartNanos());
+        try {
+            return chain.proceed(request, scope);
+        } finally {
+            timing.add(TimingPhase.UPSTREAM_FIRST_BYTE, System.nanoTime() - connected);
+        }
+    };
+
+    private UpstreamTiming() {
+    }
+}
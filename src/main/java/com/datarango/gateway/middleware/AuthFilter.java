@@ -1,21 +1,17 @@
 package com.datarango.gateway.middleware;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import com.datarango.gateway.service.JwtTokenService;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 
 @RequiredArgsConstructor
 public class AuthFilter implements Filter {
 
-    private final String jwtSecret;
+    private final JwtTokenService jwtTokenService;
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
@@ -29,8 +25,7 @@ public class AuthFilter implements Filter {
             return;
         }
 
-        String token = extractToken(httpRequest);
-        if (token == null || !isValidToken(token)) {
+        if (jwtTokenService.resolveClaims(httpRequest) == null) {
             httpResponse.setStatus(401);
             httpResponse.getWriter().write("{\"error\":\"Unauthorized\"}");
             return;
@@ -38,19 +33,4 @@ public class AuthFilter implements Filter {
 
         chain.doFilter(request, response);
     }
-
-    private String extractToken(HttpServletRequest request) {
-        String header = request.getHeader("Authorization");
-        return header != null && header.startsWith("Bearer ") ? header.substring(7) : null;
-    }
-
-    private boolean isValidToken(String token) {
-        try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-            Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
-            return claims.getExpiration().getTime() > System.currentTimeMillis();
-        } catch (Exception e) {
-            return false;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -1,11 +1,15 @@
 package com.datarango.gateway.middleware;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import com.datarango.gateway.accesslog.AccessLogWriter;
+import com.datarango.gateway.routing.Route;
+import com.datarango.gateway.routing.RouteTable;
+
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -14,33 +18,67 @@ import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+/**
+ * Publishes one access log record per request to the {@link AccessLogWriter}
+ * ring buffer; formatting and I/O happen on the writer thread.
+ */
 @Component
 public class LoggingFilter implements Filter {
 
-    private static final Logger logger = LoggerFactory.getLogger(LoggingFilter.class);
+    private final AccessLogWriter accessLog;
+    private final List<String> excludedPaths;
+    private final List<String> excludedPrefixes;
+
+    public LoggingFilter(AccessLogWriter accessLog) {
+        this.accessLog = accessLog;
+        List<String> excludes = accessLog.getProperties().getExcludePaths();
+        this.excludedPaths = excludes.stream().filter(path -> !path.endsWith("/**")).toList();
+        this.excludedPrefixes = excludes.stream().filter(path -> path.endsWith("/**"))
+                .map(path -> path.substring(0, path.length() - 3)).toList();
+    }
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
-        
         HttpServletRequest httpRequest = (HttpServletRequest) request;
-        HttpServletResponse httpResponse = (HttpServletResponse) response;
-        
-        long startTime = System.currentTimeMillis();
-        
-        logger.info("Request: {} {} from {}", 
-            httpRequest.getMethod(), 
-            httpRequest.getRequestURI(), 
-            httpRequest.getRemoteAddr());
-        
-        chain.doFilter(request, response);
-        
-        long duration = System.currentTimeMillis() - startTime;
-        
-        logger.info("Response: {} {} - Status: {} - Duration: {}ms", 
-            httpRequest.getMethod(), 
-            httpRequest.getRequestURI(), 
-            httpResponse.getStatus(), 
-            duration);
+        String path = httpRequest.getRequestURI();
+        if (!accessLog.isEnabled() || isExcluded(path)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long duration = System.nanoTime() - start;
+            int status = ((HttpServletResponse) response).getStatus();
+            if (status >= 500 || sampled()) {
+                Object route = httpRequest.getAttribute(RouteTable.ROUTE_ATTRIBUTE);
+                accessLog.publish(timestamp, httpRequest.getMethod(), path,
+                        route instanceof Route matched ? matched.id() : null,
+                        httpRequest.getRemoteAddr(), status, duration);
+            }
+        }
+    }
+
+    private boolean sampled() {
+        double rate = accessLog.getProperties().getSampleRate();
+        return rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private boolean isExcluded(String path) {
+        for (String excluded : excludedPaths) {
+            if (excluded.equals(path)) {
+                return true;
+            }
+        }
+        for (String prefix : excludedPrefixes) {
+            if (path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                return true;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -1,36 +1,33 @@
 package com.datarango.gateway.middleware;
 
-import com.datarango.gateway.service.EurekaMicroserviceClient;
+import com.datarango.gateway.metrics.RequestTiming;
+import com.datarango.gateway.metrics.TimingPhase;
+import com.datarango.gateway.ratelimit.RateLimitDecision;
+import com.datarango.gateway.ratelimit.RateLimitPolicies;
+import com.datarango.gateway.ratelimit.RateLimitPolicy;
+import com.datarango.gateway.ratelimit.RateLimiter;
+import com.datarango.gateway.routing.Route;
+import com.datarango.gateway.routing.RouteTable;
+import com.datarango.gateway.service.JwtTokenService;
+import com.datarango.gateway.service.SubscriptionService;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.Map;
 
 @RequiredArgsConstructor
 public class RateLimitFilter implements Filter {
 
-    private final RedisTemplate<String, String> redisTemplate;
-    private final EurekaMicroserviceClient microserviceClient;
-
-    @Value("${rate-limit.requests-per-minute}")
-    private int requestsPerMinute;
-
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final SubscriptionService subscriptionService;
+    private final JwtTokenService jwtTokenService;
+    private final RateLimiter rateLimiter;
+    // In-process limiter used when the primary one cannot reach Redis
+    private final RateLimiter fallbackRateLimiter;
+    private final RateLimitPolicies rateLimitPolicies;
+    private final RouteTable routeTable;
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
@@ -38,31 +35,30 @@ public class RateLimitFilter implements Filter {
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         HttpServletResponse httpResponse = (HttpServletResponse) response;
 
-        if (hasSubscription(httpRequest)) {
+        Route route = routeTable.resolve(httpRequest);
+        if (route != null && !route.hasFilter(Route.RATE_LIMIT_FILTER) || hasSubscription(httpRequest)) {
             chain.doFilter(request, response);
             return;
         }
 
         String clientIp = getClientIp(httpRequest);
-        String key = "rate_limit:" + clientIp;
+        RateLimitPolicy policy = rateLimitPolicies.resolve(httpRequest.getRequestURI());
 
+        RateLimitDecision decision;
         try {
-            String count = redisTemplate.opsForValue().get(key);
-            int currentCount = count != null ? Integer.parseInt(count) : 0;
-
-            if (currentCount >= requestsPerMinute) {
-                httpResponse.setStatus(429);
-                httpResponse.getWriter().write("{\"error\":\"Rate limit exceeded\"}");
-                return;
-            }
-
-            redisTemplate.opsForValue().increment(key);
-            Duration expiration = Duration.ofMinutes(1);
-            if (expiration != null) {
-                redisTemplate.expire(key, expiration);
-            }
+            decision = rateLimiter.tryAcquire(clientIp, policy);
         } catch (Exception e) {
-            // Redis unavailable - fail open and allow request through
+            // Redis unavailable - keep limiting on this node's own counts
+            decision = fallbackRateLimiter.tryAcquire(clientIp, policy);
+        }
+        httpResponse.setHeader("X-RateLimit-Limit", String.valueOf(decision.limit()));
+        httpResponse.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+
+        if (!decision.allowed()) {
+            httpResponse.setHeader("Retry-After", String.valueOf(decision.retryAfterSeconds()));
+            httpResponse.setStatus(429);
+            httpResponse.getWriter().write("{\"error\":\"Rate limit exceeded\"}");
+            return;
         }
 
         chain.doFilter(request, response);
@@ -73,91 +69,17 @@ public class RateLimitFilter implements Filter {
         if (userId == null)
             return false;
 
-        String cacheKey = "subscription:active:" + userId;
-        String cached = null;
-        try {
-            cached = redisTemplate.opsForValue().get(cacheKey);
-        } catch (Exception e) {
-            // Redis unavailable - proceed without cache
-        }
-
-        if ("true".equals(cached)) {
-            return true;
-        }
-
-        if ("false".equals(cached)) {
-            return false;
-        }
-
-        try {
-            @SuppressWarnings("rawtypes")
-            ResponseEntity<Map> userResponse = microserviceClient.callUserService("/users/" + userId,
-                    HttpMethod.GET, null, Map.class);
-            @SuppressWarnings("unchecked")
-            Map<String, Object> user = (Map<String, Object>) userResponse.getBody();
-            if (user == null) {
-                cacheSubscriptionStatus(cacheKey, false, 60);
-                return false;
-            }
-
-            String subscriptionId = (String) user.get("subscriptionId");
-            if (subscriptionId == null) {
-                cacheSubscriptionStatus(cacheKey, false, 60);
-                return false;
-            }
-
-            @SuppressWarnings("rawtypes")
-            ResponseEntity<Map> subResponse = microserviceClient.callUserService(
-                    "/users/subscriptions/" + subscriptionId, HttpMethod.GET, null, Map.class);
-            @SuppressWarnings("unchecked")
-            Map<String, Object> subscription = (Map<String, Object>) subResponse.getBody();
-            if (subscription == null) {
-                cacheSubscriptionStatus(cacheKey, false, 60);
-                return false;
-            }
-
-            String expiryStr = (String) subscription.get("expiryDate");
-            boolean isActive = expiryStr != null && LocalDateTime.parse(expiryStr).isAfter(LocalDateTime.now());
-
-            cacheSubscriptionStatus(cacheKey, isActive, isActive ? 300 : 60);
-
-            return isActive;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    private void cacheSubscriptionStatus(String cacheKey, boolean status, int seconds) {
-        if (cacheKey == null || cacheKey.isEmpty()) {
-            return;
-        }
+        long start = System.nanoTime();
         try {
-            String value = String.valueOf(status);
-            Duration duration = Duration.ofSeconds(seconds);
-            if (value != null && duration != null) {
-                redisTemplate.opsForValue().set(cacheKey, value, duration);
-            }
-        } catch (Exception e) {
+            return subscriptionService.hasActiveSubscription(userId);
+        } finally {
+            RequestTiming.record(TimingPhase.SUBSCRIPTION, System.nanoTime() - start);
         }
     }
 
     private String getUserId(HttpServletRequest request) {
-        String token = extractToken(request);
-        if (token == null)
-            return null;
-
-        try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-            Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
-            return claims.getSubject();
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private String extractToken(HttpServletRequest request) {
-        String header = request.getHeader("Authorization");
-        return header != null && header.startsWith("Bearer ") ? header.substring(7) : null;
+        Claims claims = jwtTokenService.resolveClaims(request);
+        return claims != null ? claims.getSubject() : null;
     }
 
     private String getClientIp(HttpServletRequest request) {
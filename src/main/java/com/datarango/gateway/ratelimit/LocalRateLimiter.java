@@ -0,0 +1,227 @@
+package com.datarango.gateway.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-tier limiter that admits requests from in-process counters and pushes
+ * the deltas to Redis in pipelined batches on a short interval. Each node
+ * estimates the cluster-wide count as the last total it read from Redis plus
+ * what it admitted since, weighted like a sliding window counter, and may
+ * admit at most its share of the remaining quota between syncs. When Redis is
+ * unreachable the node keeps limiting on its own counts, admitting only its
+ * 1/nodes share of each limit.
+ *
+ * It is the limiter with {@code rate-limit.local.enabled}, and otherwise the
+ * fallback when {@link RedisRateLimiter} cannot reach Redis. Every policy,
+ * token bucket included, is approximated as a sliding window counter of limit
+ * per window; burst is not honoured.
+ */
+@Component
+@Slf4j
+public class LocalRateLimiter implements RateLimiter, DisposableBean {
+
+    private final ConcurrentHashMap<String, AtomicReference<Window>> counters = new ConcurrentHashMap<>();
+    private final RedisTemplate<String, String> redisTemplate;
+    private final DiscoveryClient discoveryClient;
+    private final String applicationName;
+    private final int configuredNodes;
+    private final long syncIntervalMillis;
+    private final ScheduledExecutorService syncExecutor;
+
+    private volatile int nodes = 1;
+    private volatile boolean redisAvailable = true;
+
+    public LocalRateLimiter(RedisTemplate<String, String> redisTemplate, DiscoveryClient discoveryClient,
+            RateLimitProperties properties, @Value("${spring.application.name}") String applicationName) {
+        this.redisTemplate = redisTemplate;
+        this.discoveryClient = discoveryClient;
+        this.applicationName = applicationName;
+        this.configuredNodes = properties.getLocal().getNodes();
+        this.syncIntervalMillis = properties.getLocal().getSyncIntervalMillis();
+        this.nodes = Math.max(1, configuredNodes);
+        this.syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.syncExecutor.scheduleWithFixedDelay(this::sync, syncIntervalMillis, syncIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key, RateLimitPolicy policy) {
+        long windowMillis = policy.window().toMillis();
+        long now = System.currentTimeMillis();
+        long index = now / windowMillis;
+        Window window = currentWindow(policy.name() + ":" + key, policy, index);
+
+        long limit = policy.limit();
+        long elapsed = now - index * windowMillis;
+        double weight = (double) (windowMillis - elapsed) / windowMillis;
+        long unflushed = window.unflushed();
+        double estimated = window.previousTotal() * weight + window.clusterCount + unflushed;
+        long share = Math.max(1, (limit - window.clusterCount) / nodes);
+
+        if (estimated + 1 > limit) {
+            return RateLimitDecision.reject(limit, windowMillis - elapsed);
+        }
+        if (unflushed >= share) {
+            // Until the next sync the node may only use its share of what is left;
+            // with Redis down that share is all it gets for the rest of the window
+            return RateLimitDecision.reject(limit, redisAvailable ? syncIntervalMillis : windowMillis - elapsed);
+        }
+
+        window.admitted.increment();
+        return RateLimitDecision.allow(limit, Math.max(0, (long) (limit - estimated - 1)));
+    }
+
+    private Window currentWindow(String counterKey, RateLimitPolicy policy, long index) {
+        AtomicReference<Window> ref = counters.computeIfAbsent(counterKey,
+                k -> new AtomicReference<>(new Window(counterKey, policy, index, null)));
+        Window window = ref.get();
+        while (window.index < index) {
+            Window next = new Window(counterKey, policy, index, window.index == index - 1 ? window : null);
+            if (ref.compareAndSet(window, next)) {
+                // Anything older than the previous window no longer affects the estimate
+                window.previous = null;
+                return next;
+            }
+            window = ref.get();
+        }
+        return window;
+    }
+
+    @EventListener({ ApplicationReadyEvent.class, HeartbeatEvent.class })
+    public void refreshNodeCount() {
+        if (configuredNodes > 0) {
+            return;
+        }
+        try {
+            nodes = Math.max(1, discoveryClient.getInstances(applicationName).size());
+        } catch (Exception e) {
+            log.debug("Could not read gateway instance count: {}", e.getMessage());
+        }
+    }
+
+    void sync() {
+        List<Window> batch = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, AtomicReference<Window>> entry : counters.entrySet()) {
+            Window window = entry.getValue().get();
+            Window previous = window.previous;
+            if (previous != null && previous.unflushed() > 0) {
+                batch.add(previous);
+            }
+            long currentIndex = now / window.windowMillis;
+            if (window.index < currentIndex - 1 && window.unflushed() == 0) {
+                counters.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            batch.add(window);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long[] deltas = new long[batch.size()];
+        for (int i = 0; i < deltas.length; i++) {
+            deltas[i] = batch.get(i).unflushed();
+        }
+
+        List<Object> results;
+        try {
+            results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int i = 0; i < deltas.length; i++) {
+                    queue(connection, batch.get(i), deltas[i]);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            if (redisAvailable) {
+                log.warn("Rate limit sync to Redis failed, limiting locally: {}", e.getMessage());
+            }
+            redisAvailable = false;
+            return;
+        }
+        if (!redisAvailable) {
+            log.info("Rate limit sync to Redis recovered");
+        }
+        redisAvailable = true;
+
+        int position = 0;
+        for (int i = 0; i < deltas.length; i++) {
+            Window window = batch.get(i);
+            Object total = results.get(position);
+            position += deltas[i] > 0 ? 2 : 1;
+            // Publish the new total before advancing flushed so readers over-count, never under-count
+            window.clusterCount = total != null ? Long.parseLong(String.valueOf(total)) : 0;
+            window.flushed += deltas[i];
+        }
+    }
+
+    private void queue(RedisConnection connection, Window window, long delta) {
+        byte[] key = window.redisKey;
+        if (delta > 0) {
+            connection.stringCommands().incrBy(key, delta);
+            connection.keyCommands().pExpire(key, window.windowMillis * 2);
+        } else {
+            connection.stringCommands().get(key);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        syncExecutor.shutdown();
+        if (syncExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+            sync();
+        }
+    }
+
+    private static final class Window {
+        final long index;
+        final long windowMillis;
+        final byte[] redisKey;
+        final LongAdder admitted = new LongAdder();
+        // Written only by the sync thread
+        volatile long flushed;
+        volatile long clusterCount;
+        volatile Window previous;
+
+        Window(String counterKey, RateLimitPolicy policy, long index, Window previous) {
+            this.index = index;
+            this.windowMillis = policy.window().toMillis();
+            this.redisKey = ("rate_limit:local:" + counterKey + ":" + index).getBytes(StandardCharsets.UTF_8);
+            this.previous = previous;
+        }
+
+        long unflushed() {
+            return admitted.sum() - flushed;
+        }
+
+        long previousTotal() {
+            Window p = previous;
+            return p != null ? p.clusterCount + p.unflushed() : 0;
+        }
+    }
+}
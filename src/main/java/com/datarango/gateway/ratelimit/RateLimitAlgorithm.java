@@ -0,0 +1,25 @@
+package com.datarango.gateway.ratelimit;
+
+public enum RateLimitAlgorithm {
+
+    FIXED_WINDOW("fw", "scripts/rate_limit_fixed_window.lua"),
+    SLIDING_WINDOW_COUNTER("swc", "scripts/rate_limit_sliding_window_counter.lua"),
+    SLIDING_LOG("sl", "scripts/rate_limit_sliding_log.lua"),
+    TOKEN_BUCKET("tb", "scripts/rate_limit_token_bucket.lua");
+
+    private final String keyPrefix;
+    private final String scriptLocation;
+
+    RateLimitAlgorithm(String keyPrefix, String scriptLocation) {
+        this.keyPrefix = keyPrefix;
+        this.scriptLocation = scriptLocation;
+    }
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    public String getScriptLocation() {
+        return scriptLocation;
+    }
+}
@@ -0,0 +1,16 @@
+package com.datarango.gateway.ratelimit;
+
+public record RateLimitDecision(boolean allowed, long limit, long remaining, long retryAfterMillis) {
+
+    public static RateLimitDecision allow(long limit, long remaining) {
+        return new RateLimitDecision(true, limit, remaining, 0);
+    }
+
+    public static RateLimitDecision reject(long limit, long retryAfterMillis) {
+        return new RateLimitDecision(false, limit, 0, retryAfterMillis);
+    }
+
+    public long retryAfterSeconds() {
+        return Math.max(1, (retryAfterMillis + 999) / 1000);
+    }
+}
@@ -0,0 +1,47 @@
+package com.datarango.gateway.ratelimit;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Resolves the policy for a request path. Routes are matched on whole path
+ * segments, longest prefix first; anything unmatched gets the default policy.
+ */
+@Component
+public class RateLimitPolicies {
+
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    private final RateLimitPolicy defaultPolicy;
+    private final List<RateLimitPolicy> routePolicies;
+
+    public RateLimitPolicies(RateLimitProperties properties) {
+        int defaultLimit = properties.getRequestsPerMinute();
+        this.defaultPolicy = new RateLimitPolicy("default", properties.getAlgorithm(), defaultLimit, WINDOW,
+                defaultLimit);
+        this.routePolicies = properties.getRoutes().stream()
+                .map(route -> {
+                    int limit = route.getRequestsPerMinute() != null ? route.getRequestsPerMinute() : defaultLimit;
+                    RateLimitAlgorithm algorithm = route.getAlgorithm() != null ? route.getAlgorithm()
+                            : properties.getAlgorithm();
+                    int burst = route.getBurst() != null ? route.getBurst() : limit;
+                    return new RateLimitPolicy(route.getPrefix(), algorithm, limit, WINDOW, burst);
+                })
+                .sorted(Comparator.comparingInt((RateLimitPolicy policy) -> policy.name().length()).reversed())
+                .toList();
+    }
+
+    public RateLimitPolicy resolve(String path) {
+        for (RateLimitPolicy policy : routePolicies) {
+            String prefix = policy.name();
+            if (path.startsWith(prefix)
+                    && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                return policy;
+            }
+        }
+        return defaultPolicy;
+    }
+}
@@ -0,0 +1,11 @@
+package com.datarango.gateway.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * @param name      route prefix the policy applies to, or "default"
+ * @param limit     requests admitted per window (refill rate for token bucket)
+ * @param burst     bucket capacity for token bucket, ignored by the other algorithms
+ */
+public record RateLimitPolicy(String name, RateLimitAlgorithm algorithm, int limit, Duration window, int burst) {
+}
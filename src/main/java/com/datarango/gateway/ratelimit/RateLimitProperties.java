@@ -0,0 +1,33 @@
+package com.datarango.gateway.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private int requestsPerMinute = 60;
+    private RateLimitAlgorithm algorithm = RateLimitAlgorithm.SLIDING_WINDOW_COUNTER;
+    private List<Route> routes = new ArrayList<>();
+    private Local local = new Local();
+
+    @Data
+    public static class Route {
+        private String prefix;
+        private RateLimitAlgorithm algorithm;
+        private Integer requestsPerMinute;
+        private Integer burst;
+    }
+
+    @Data
+    public static class Local {
+        private boolean enabled = false;
+        private long syncIntervalMillis = 100;
+        // Gateway nodes sharing the quota; 0 means count the instances registered in Eureka
+        private int nodes = 0;
+    }
+}
@@ -0,0 +1,6 @@
+package com.datarango.gateway.ratelimit;
+
+public interface RateLimiter {
+
+    RateLimitDecision tryAcquire(String key, RateLimitPolicy policy);
+}
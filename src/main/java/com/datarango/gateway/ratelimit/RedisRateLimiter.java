@@ -0,0 +1,90 @@
+package com.datarango.gateway.ratelimit;
+
+import com.datarango.gateway.metrics.RequestTiming;
+import com.datarango.gateway.metrics.TimingPhase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs each algorithm as one atomic Lua call. RedisTemplate uses EVALSHA, so
+ * after the startup SCRIPT LOAD only the SHA goes over the wire. All scripts
+ * take (limit, window millis, burst) and return {allowed, remaining, retry millis}.
+ */
+@Component
+@Slf4j
+public class RedisRateLimiter implements RateLimiter {
+
+    @SuppressWarnings("rawtypes")
+    private final Map<RateLimitAlgorithm, RedisScript<List>> scripts = new EnumMap<>(RateLimitAlgorithm.class);
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public RedisRateLimiter(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        for (RateLimitAlgorithm algorithm : RateLimitAlgorithm.values()) {
+            scripts.put(algorithm, loadScript(algorithm.getScriptLocation()));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadScripts() {
+        scripts.forEach((algorithm, script) -> {
+            try {
+                String sha = redisTemplate.execute((RedisCallback<String>) connection -> connection
+                        .scriptingCommands()
+                        .scriptLoad(script.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+                log.info("Loaded {} rate limit script {}", algorithm, sha);
+            } catch (Exception e) {
+                log.warn("Could not preload {} rate limit script, it will be sent on first use: {}", algorithm,
+                        e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key, RateLimitPolicy policy) {
+        RateLimitAlgorithm algorithm = policy.algorithm();
+        String redisKey = "rate_limit:" + algorithm.getKeyPrefix() + ":" + policy.name() + ":" + key;
+        long start = System.nanoTime();
+        List<?> result;
+        try {
+            result = redisTemplate.execute(scripts.get(algorithm), List.of(redisKey),
+                    String.valueOf(policy.limit()),
+                    String.valueOf(policy.window().toMillis()),
+                    String.valueOf(policy.burst()));
+        } finally {
+            RequestTiming.record(TimingPhase.REDIS, System.nanoTime() - start);
+        }
+        if (result == null || result.size() < 3) {
+            throw new IllegalStateException("Unexpected rate limit script result: " + result);
+        }
+
+        int limit = algorithm == RateLimitAlgorithm.TOKEN_BUCKET ? policy.burst() : policy.limit();
+        return asLong(result.get(0)) == 1
+                ? RateLimitDecision.allow(limit, asLong(result.get(1)))
+                : RateLimitDecision.reject(limit, asLong(result.get(2)));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static RedisScript<List> loadScript(String location) {
+        DefaultRedisScript<List> redisScript = new DefaultRedisScript<>();
+        redisScript.setLocation(new ClassPathResource(location));
+        redisScript.setResultType(List.class);
+        return redisScript;
+    }
+
+    private static long asLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value));
+    }
+}
@@ -0,0 +1,45 @@
+package com.datarango.gateway.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Quantile of the most recent call latencies of a route, kept in a fixed ring
+ * and recomputed every {@code RECOMPUTE_EVERY} samples so reads are a
+ * volatile load.
+ */
+public class LatencyTracker {
+
+    private static final int WINDOW = 512;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final double quantile;
+    private final long[] samples = new long[WINDOW];
+    private int next;
+    // Written under the lock, read without it by quantileNanos
+    private volatile long count;
+    private volatile long quantileNanos;
+
+    public LatencyTracker(double quantile) {
+        this.quantile = quantile;
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % WINDOW;
+        long seen = count + 1;
+        count = seen;
+        if (seen % RECOMPUTE_EVERY == 0) {
+            long[] sorted = Arrays.copyOf(samples, (int) Math.min(seen, WINDOW));
+            Arrays.sort(sorted);
+            quantileNanos = sorted[(int) Math.ceil(quantile * sorted.length) - 1];
+        }
+    }
+
+    /**
+     * The latency quantile, or 0 until enough samples have been seen.
+     */
+    public long quantileNanos(int minSamples) {
+        long value = quantileNanos;
+        return count >= minSamples ? value : 0;
+    }
+}
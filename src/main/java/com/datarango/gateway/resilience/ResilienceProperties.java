@@ -0,0 +1,68 @@
+package com.datarango.gateway.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.resilience")
+public class ResilienceProperties {
+
+    private boolean enabled = true;
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Bulkhead bulkhead = new Bulkhead();
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+    private Retry retry = new Retry();
+    private Hedge hedge = new Hedge();
+
+    @Data
+    public static class CircuitBreaker {
+        // Rolling time window the failure and slow-call rates are computed over
+        private int slidingWindowSeconds = 30;
+        private int minimumCalls = 20;
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 80;
+        private long slowCallDurationMillis = 5000;
+        private long openStateMillis = 15000;
+        private int halfOpenCalls = 5;
+    }
+
+    @Data
+    public static class Bulkhead {
+        private int maxConcurrentCalls = 25;
+        // Overrides of maxConcurrentCalls keyed by service id
+        private Map<String, Integer> serviceMaxConcurrentCalls = new HashMap<>();
+
+        public int maxConcurrentCallsFor(String serviceId) {
+            return serviceMaxConcurrentCalls.getOrDefault(serviceId, maxConcurrentCalls);
+        }
+    }
+
+    @Data
+    public static class ConcurrencyLimit {
+        private boolean enabled = true;
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 500;
+        // Weight of each new limit estimate, 1.0 applies it immediately
+        private double smoothing = 1.0;
+    }
+
+    @Data
+    public static class Retry {
+        // Total attempts per call, including the first
+        private int maxAttempts = 2;
+        // Retries and hedges allowed per call, averaged over time
+        private double budgetRatio = 0.1;
+        private int budgetCap = 100;
+    }
+
+    @Data
+    public static class Hedge {
+        private double quantile = 0.95;
+        private long minDelayMillis = 5;
+        private int minSamples = 100;
+    }
+}
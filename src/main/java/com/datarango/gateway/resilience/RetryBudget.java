@@ -0,0 +1,39 @@
+package com.datarango.gateway.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries and hedges at a fraction of a service's traffic. Every call
+ * deposits {@code ratio} of a token, every retry or hedge spends a whole one,
+ * and the balance never exceeds {@code cap}, so a failing upstream sees at
+ * most (1 + ratio) times its normal load plus a small burst.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long depositPerCall;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    public RetryBudget(double ratio, int cap) {
+        this.depositPerCall = Math.round(ratio * SCALE);
+        this.capacity = cap * SCALE;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    public void deposit() {
+        balance.updateAndGet(current -> Math.min(capacity, current + depositPerCall));
+    }
+
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+}
@@ -0,0 +1,7 @@
+package com.datarango.gateway.resilience;
+
+@FunctionalInterface
+public interface UpstreamCall<T, E extends Exception> {
+
+    T execute() throws E;
+}
@@ -0,0 +1,186 @@
+package com.datarango.gateway.resilience;
+
+import com.datarango.gateway.exception.ServiceUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Per-service circuit breaker, bulkhead and adaptive concurrency limit in
+ * front of upstream calls. Calls are rejected with
+ * {@link ServiceUnavailableException} without touching the upstream while the
+ * breaker is open, the bulkhead is full or the service is above its current
+ * {@link VegasLimit}. Connection failures and 5xx responses count as failures; 4xx
+ * responses do not.
+ */
+@Component
+@EnableConfigurationProperties(ResilienceProperties.class)
+@Slf4j
+public class UpstreamGuard {
+
+    // Recorded for calls that returned normally but with a failed result
+    private static final IOException FAILED_RESULT = new IOException("Upstream returned a server error");
+
+    private final ResilienceProperties properties;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, VegasLimit> concurrencyLimits = new ConcurrentHashMap<>();
+
+    public UpstreamGuard(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        ResilienceProperties.CircuitBreaker breaker = properties.getCircuitBreaker();
+        this.circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.TIME_BASED)
+                .slidingWindowSize(breaker.getSlidingWindowSeconds())
+                .minimumNumberOfCalls(breaker.getMinimumCalls())
+                .failureRateThreshold(breaker.getFailureRateThreshold())
+                .slowCallRateThreshold(breaker.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(Duration.ofMillis(breaker.getSlowCallDurationMillis()))
+                .waitDurationInOpenState(Duration.ofMillis(breaker.getOpenStateMillis()))
+                .permittedNumberOfCallsInHalfOpenState(breaker.getHalfOpenCalls())
+                .recordException(UpstreamGuard::isFailure)
+                .build());
+        this.bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getBulkhead().getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+    }
+
+    public <T, E extends Exception> T call(String serviceId, UpstreamCall<T, E> call) throws E {
+        return call(serviceId, call, result -> false);
+    }
+
+    /**
+     * Like {@link #call(String, UpstreamCall)}, for calls that report upstream
+     * errors in their result rather than by throwing, such as a raw
+     * {@code ClientHttpResponse}. Results matching {@code failedResult} are
+     * returned to the caller but count as failures.
+     */
+    public <T, E extends Exception> T call(String serviceId, UpstreamCall<T, E> call,
+            Predicate<? super T> failedResult) throws E {
+        if (!properties.isEnabled()) {
+            return call.execute();
+        }
+
+        CircuitBreaker breaker = circuitBreakers.circuitBreaker(serviceId);
+        if (!breaker.tryAcquirePermission()) {
+            rejected(serviceId, "circuit-open");
+            throw new ServiceUnavailableException(serviceId + " is unavailable (circuit open)");
+        }
+
+        Bulkhead bulkhead = bulkheadFor(serviceId);
+        if (!bulkhead.tryAcquirePermission()) {
+            breaker.releasePermission();
+            rejected(serviceId, "bulkhead-full");
+            throw new ServiceUnavailableException(serviceId + " is at its concurrency limit");
+        }
+
+        VegasLimit limit = concurrencyLimitFor(serviceId);
+        int inFlightAtStart = limit != null ? limit.tryAcquire() : 0;
+        if (limit != null && inFlightAtStart == 0) {
+            bulkhead.onComplete();
+            breaker.releasePermission();
+            rejected(serviceId, "concurrency-limit");
+            throw new ServiceUnavailableException(serviceId + " is shedding load");
+        }
+
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            T result = call.execute();
+            if (failedResult.test(result)) {
+                failed = true;
+                breaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, FAILED_RESULT);
+            } else {
+                breaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            return result;
+        } catch (Exception e) {
+            failed = isFailure(e);
+            breaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            throw e;
+        } finally {
+            bulkhead.onComplete();
+            if (limit != null) {
+                limit.release(inFlightAtStart, System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    private VegasLimit concurrencyLimitFor(String serviceId) {
+        ResilienceProperties.ConcurrencyLimit config = properties.getConcurrencyLimit();
+        if (!config.isEnabled()) {
+            return null;
+        }
+        return concurrencyLimits.computeIfAbsent(serviceId, id -> {
+            VegasLimit limit = new VegasLimit(config.getInitialLimit(), config.getMinLimit(),
+                    config.getMaxLimit(), config.getSmoothing());
+            Gauge.builder("gateway.upstream.concurrency.limit", limit, VegasLimit::getLimit)
+                    .description("Adaptive concurrency limit for the upstream service")
+                    .tag("service", id)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.upstream.concurrency.in_flight", limit, VegasLimit::getInFlight)
+                    .description("Calls in flight to the upstream service")
+                    .tag("service", id)
+                    .register(meterRegistry);
+            return limit;
+        });
+    }
+
+    public CircuitBreaker.State stateOf(String serviceId) {
+        return circuitBreakers.circuitBreaker(serviceId).getState();
+    }
+
+    private Bulkhead bulkheadFor(String serviceId) {
+        int maxConcurrentCalls = properties.getBulkhead().maxConcurrentCallsFor(serviceId);
+        if (maxConcurrentCalls == properties.getBulkhead().getMaxConcurrentCalls()) {
+            return bulkheads.bulkhead(serviceId);
+        }
+        return bulkheads.bulkhead(serviceId, () -> BulkheadConfig.from(bulkheads.getDefaultConfig())
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .build());
+    }
+
+    private void rejected(String serviceId, String reason) {
+        log.debug("Rejected call to {}: {}", serviceId, reason);
+        Counter.builder("gateway.upstream.rejected")
+                .description("Upstream calls rejected before reaching the service")
+                .tag("service", serviceId)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    static boolean isFailure(Throwable e) {
+        return e instanceof HttpServerErrorException
+                || e instanceof ResourceAccessException
+                || e instanceof ServiceUnavailableException
+                || e instanceof IOException;
+    }
+}
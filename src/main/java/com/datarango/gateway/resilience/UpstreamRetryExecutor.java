@@ -0,0 +1,205 @@
+package com.datarango.gateway.resilience;
+
+import com.datarango.gateway.routing.Route;
+import com.datarango.gateway.routing.UpstreamRouteContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Retries idempotent calls that failed before a response was read, and hedges
+ * GETs on routes with the {@code hedge} filter: once a call has taken longer
+ * than the route's recent p95, a second copy is sent (the balancer steers it
+ * to another instance, since the first is now busier) and the first answer
+ * wins. Both spend from a per-service {@link RetryBudget}.
+ */
+@Component
+@Slf4j
+public class UpstreamRetryExecutor implements DisposableBean {
+
+    public static final String HEDGE_FILTER = "hedge";
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD,
+            HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE);
+
+    private final ResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService hedgeExecutor;
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+    private final Map<String, LatencyTracker> routeLatencies = new ConcurrentHashMap<>();
+
+    public UpstreamRetryExecutor(ResilienceProperties properties, MeterRegistry meterRegistry,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        if (virtualThreads) {
+            this.hedgeExecutor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("upstream-hedge-", 0).factory());
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.hedgeExecutor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "upstream-hedge-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public <T> T execute(String serviceId, HttpMethod method, Supplier<T> call) {
+        RetryBudget budget = budgets.computeIfAbsent(serviceId, id -> new RetryBudget(
+                properties.getRetry().getBudgetRatio(), properties.getRetry().getBudgetCap()));
+        budget.deposit();
+
+        Route route = UpstreamRouteContext.get();
+        if (route == null || method != HttpMethod.GET || !route.hasFilter(HEDGE_FILTER)) {
+            return withRetries(serviceId, method, budget, call);
+        }
+        LatencyTracker latency = routeLatencies.computeIfAbsent(route.id(),
+                id -> new LatencyTracker(properties.getHedge().getQuantile()));
+        return hedged(serviceId, route, latency, budget, () -> withRetries(serviceId, method, budget, call));
+    }
+
+    private <T> T withRetries(String serviceId, HttpMethod method, RetryBudget budget, Supplier<T> call) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return call.get();
+            } catch (ResourceAccessException e) {
+                if (!IDEMPOTENT_METHODS.contains(method) || !isRetryable(e)
+                        || attempt >= properties.getRetry().getMaxAttempts() || !budget.tryWithdraw()) {
+                    throw e;
+                }
+                attempt++;
+                log.debug("Retrying {} {} after {}", method, serviceId, e.getMessage());
+                count("gateway.upstream.retries", serviceId);
+            }
+        }
+    }
+
+    private <T> T hedged(String serviceId, Route route, LatencyTracker latency, RetryBudget budget,
+            Supplier<T> call) {
+        long start = System.nanoTime();
+        Supplier<T> onRoute = () -> {
+            UpstreamRouteContext.set(route);
+            try {
+                return call.get();
+            } finally {
+                UpstreamRouteContext.clear();
+            }
+        };
+
+        long quantile = latency.quantileNanos(properties.getHedge().getMinSamples());
+        if (quantile == 0) {
+            // Not enough history yet to pick a hedge delay
+            T result = call.get();
+            latency.record(System.nanoTime() - start);
+            return result;
+        }
+        long delay = Math.max(quantile, TimeUnit.MILLISECONDS.toNanos(properties.getHedge().getMinDelayMillis()));
+
+        CompletableFuture<T> primary = CompletableFuture.supplyAsync(onRoute, hedgeExecutor);
+        CompletableFuture<T> winner;
+        try {
+            winner = CompletableFuture.completedFuture(primary.get(delay, TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            if (budget.tryWithdraw()) {
+                count("gateway.upstream.hedges", serviceId);
+                winner = firstSuccessful(primary, CompletableFuture.supplyAsync(onRoute, hedgeExecutor));
+            } else {
+                winner = primary;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.cancel(true);
+            throw new ResourceAccessException("Interrupted waiting for " + serviceId);
+        } catch (ExecutionException e) {
+            winner = primary;
+        }
+
+        T result = join(winner);
+        latency.record(System.nanoTime() - start);
+        return result;
+    }
+
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> primary,
+            CompletableFuture<T> hedge) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        BiConsumer<T, Throwable> handler = (value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else if (!UpstreamGuard.isFailure(unwrap(error)) || failures.incrementAndGet() == 2) {
+                // A 4xx is a real answer; otherwise wait for the other copy
+                result.completeExceptionally(unwrap(error));
+            }
+        };
+        primary.whenComplete(handler);
+        hedge.whenComplete(handler);
+        return result;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ResourceAccessException("Interrupted waiting for upstream");
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof ExecutionException || current instanceof CompletionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+
+    // Only failures where no response was read are safe to repeat; a read
+    // timeout means the upstream may still be working on the request.
+    private static boolean isRetryable(ResourceAccessException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof IOException && !(cause instanceof SocketTimeoutException);
+    }
+
+    private void count(String name, String serviceId) {
+        Counter.builder(name)
+                .tag("service", serviceId)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public void destroy() {
+        hedgeExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,100 @@
+package com.datarango.gateway.resilience;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TCP Vegas style concurrency limit for one upstream service. The limit grows
+ * while observed latency stays close to the no-load latency and shrinks once
+ * the estimated queue (limit * (1 - minRtt / rtt)) passes beta, or when calls
+ * fail. The no-load latency is re-probed periodically so the limit follows
+ * upstreams that get permanently faster or slower.
+ */
+public class VegasLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private long rttNoLoadNanos;
+    private long samplesUntilProbe;
+
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit, double smoothing) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.samplesUntilProbe = nextProbe(initialLimit);
+    }
+
+    /**
+     * Takes a slot if the service is below its limit. Returns the number of
+     * calls in flight including this one, or 0 when the call is shed.
+     */
+    public int tryAcquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > (int) limit) {
+            inFlight.decrementAndGet();
+            return 0;
+        }
+        return current;
+    }
+
+    /**
+     * Releases a slot taken by {@link #tryAcquire()} and feeds its latency back.
+     * {@code inFlightAtStart} is what {@code tryAcquire} returned for the call.
+     */
+    public void release(int inFlightAtStart, long rttNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+        onSample(rttNanos, inFlightAtStart, dropped);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    synchronized void onSample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        if (--samplesUntilProbe <= 0) {
+            samplesUntilProbe = nextProbe(limit);
+            rttNoLoadNanos = rttNanos;
+            return;
+        }
+        if (rttNoLoadNanos == 0 || rttNanos < rttNoLoadNanos) {
+            rttNoLoadNanos = rttNanos;
+            return;
+        }
+
+        double current = limit;
+        double log = Math.max(1, Math.log10(current));
+        double next;
+        if (dropped) {
+            next = current - log;
+        } else if (inFlightAtStart * 2 < current) {
+            // Not enough traffic to say anything about the upstream's capacity
+            return;
+        } else {
+            double queue = Math.ceil(current * (1 - (double) rttNoLoadNanos / rttNanos));
+            if (queue <= log) {
+                next = current + 6 * log;
+            } else if (queue < 3 * log) {
+                next = current + log;
+            } else if (queue > 6 * log) {
+                next = current - log;
+            } else {
+                return;
+            }
+        }
+        next = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (1 - smoothing) * current + smoothing * next;
+    }
+
+    private static long nextProbe(double limit) {
+        return (long) (ThreadLocalRandom.current().nextInt(30, 60) * Math.max(limit, 1));
+    }
+}
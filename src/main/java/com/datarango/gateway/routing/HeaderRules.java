@@ -0,0 +1,64 @@
+package com.datarango.gateway.routing;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compiled add/remove rules for one direction of a route. Removal is a
+ * case-insensitive lookup on the header name as received, so no per-request
+ * normalized copy of the name is made.
+ */
+public final class HeaderRules {
+
+    static final HeaderRules NONE = new HeaderRules(new TreeSet<>(String.CASE_INSENSITIVE_ORDER), new String[0],
+            new String[0]);
+
+    private final Set<String> remove;
+    private final String[] addNames;
+    private final String[] addValues;
+
+    private HeaderRules(Set<String> remove, String[] addNames, String[] addValues) {
+        this.remove = remove;
+        this.addNames = addNames;
+        this.addValues = addValues;
+    }
+
+    static HeaderRules compile(RouteDefinition.HeaderRulesDefinition definition) {
+        if (definition == null || (definition.getAdd().isEmpty() && definition.getRemove().isEmpty())) {
+            return NONE;
+        }
+        Set<String> remove = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        remove.addAll(definition.getRemove());
+        String[] names = new String[definition.getAdd().size()];
+        String[] values = new String[names.length];
+        int i = 0;
+        for (Map.Entry<String, String> header : definition.getAdd().entrySet()) {
+            names[i] = header.getKey();
+            values[i++] = header.getValue();
+        }
+        return new HeaderRules(remove, names, values);
+    }
+
+    public boolean removes(String name) {
+        return !remove.isEmpty() && remove.contains(name);
+    }
+
+    /**
+     * Sets the configured headers, replacing any value copied from the other side.
+     */
+    public void addTo(HttpHeaders headers) {
+        for (int i = 0; i < addNames.length; i++) {
+            headers.set(addNames[i], addValues[i]);
+        }
+    }
+
+    public void addTo(HttpServletResponse response) {
+        for (int i = 0; i < addNames.length; i++) {
+            response.setHeader(addNames[i], addValues[i]);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.datarango.gateway.routing;
+
+import java.util.Set;
+
+/**
+ * Compiled, immutable form of a {@link RouteDefinition}.
+ */
+public record Route(String id, String prefix, String serviceId, boolean stripPrefix, String upstreamPrefix,
+        Set<String> methods, Integer readTimeoutMillis, Set<String> filters, HeaderRules requestHeaders,
+        HeaderRules responseHeaders) {
+
+    public static final String RATE_LIMIT_FILTER = "rate-limit";
+    public static final String STREAMING_FILTER = "streaming";
+    public static final String WEBSOCKET_FILTER = "websocket";
+
+    static Route compile(RouteDefinition definition) {
+        if (definition.getPrefix() == null || !definition.getPrefix().startsWith("/")) {
+            throw new IllegalArgumentException("Route " + definition.getId() + " needs a prefix starting with /");
+        }
+        if (definition.getServiceId() == null || definition.getServiceId().isBlank()) {
+            throw new IllegalArgumentException("Route " + definition.getId() + " needs a service-id");
+        }
+        String prefix = definition.getPrefix();
+        while (prefix.length() > 1 && prefix.endsWith("/")) {
+            prefix = prefix.substring(0, prefix.length() - 1);
+        }
+        String upstreamPrefix = definition.getUpstreamPrefix();
+        if (upstreamPrefix != null) {
+            if (!upstreamPrefix.startsWith("/")) {
+                throw new IllegalArgumentException("Route " + definition.getId()
+                        + " needs an upstream-prefix starting with /");
+            }
+            while (upstreamPrefix.endsWith("/")) {
+                upstreamPrefix = upstreamPrefix.substring(0, upstreamPrefix.length() - 1);
+            }
+            if (upstreamPrefix.isEmpty()) {
+                upstreamPrefix = null;
+            }
+        }
+        return new Route(
+                definition.getId() != null ? definition.getId() : definition.getServiceId(),
+                prefix,
+                definition.getServiceId(),
+                definition.isStripPrefix(),
+                upstreamPrefix,
+                Set.copyOf(definition.getMethods().stream().map(String::toUpperCase).toList()),
+                definition.getReadTimeoutMillis(),
+                Set.copyOf(definition.getFilters()),
+                HeaderRules.compile(definition.getRequestHeaders()),
+                HeaderRules.compile(definition.getResponseHeaders()));
+    }
+
+    public Route withReadTimeoutMillis(Integer readTimeoutMillis) {
+        return new Route(id, prefix, serviceId, stripPrefix, upstreamPrefix, methods, readTimeoutMillis, filters,
+                requestHeaders, responseHeaders);
+    }
+
+    public boolean allows(String method) {
+        return methods.contains(method);
+    }
+
+    public boolean hasFilter(String filter) {
+        return filters.contains(filter);
+    }
+
+    /**
+     * Path to call on the upstream for a request path matched by this route.
+     * A stripped prefix is replaced by the upstream prefix, if one is set.
+     */
+    public String endpoint(String path) {
+        if (!stripPrefix) {
+            return path;
+        }
+        if (path.length() == prefix.length()) {
+            return upstreamPrefix != null ? upstreamPrefix : "/";
+        }
+        return upstreamPrefix != null
+                ? upstreamPrefix.concat(path.substring(prefix.length()))
+                : path.substring(prefix.length());
+    }
+}
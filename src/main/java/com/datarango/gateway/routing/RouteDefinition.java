@@ -0,0 +1,35 @@
+package com.datarango.gateway.routing;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One entry of gateway.routes, as bound from configuration.
+ */
+@Data
+public class RouteDefinition {
+
+    private String id;
+    private String prefix;
+    private String serviceId;
+    private boolean stripPrefix = true;
+    // Put in place of the stripped prefix on the upstream path, e.g. /v1
+    private String upstreamPrefix;
+    private List<String> methods = new ArrayList<>(List.of("GET", "POST", "PUT", "DELETE"));
+    // Overrides gateway.http-client.read-timeout for this route when set
+    private Integer readTimeoutMillis;
+    private List<String> filters = new ArrayList<>(List.of(Route.RATE_LIMIT_FILTER));
+    private HeaderRulesDefinition requestHeaders = new HeaderRulesDefinition();
+    private HeaderRulesDefinition responseHeaders = new HeaderRulesDefinition();
+
+    @Data
+    public static class HeaderRulesDefinition {
+
+        private Map<String, String> add = new LinkedHashMap<>();
+        private List<String> remove = new ArrayList<>();
+    }
+}
@@ -0,0 +1,83 @@
+package com.datarango.gateway.routing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Holds the compiled gateway.routes table. The table is rebuilt whenever the
+ * environment changes (e.g. POST /actuator/refresh) and swapped in atomically;
+ * an invalid table is rejected and the previous one stays active.
+ */
+@Component
+@Slf4j
+public class RouteTable {
+
+    public static final String ROUTE_ATTRIBUTE = RouteTable.class.getName() + ".route";
+
+    private static final Object NO_ROUTE = new Object();
+
+    private final Environment environment;
+    private volatile List<Route> routes;
+    private volatile RouteTrie trie;
+
+    public RouteTable(Environment environment) {
+        this.environment = environment;
+        reload();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith("gateway.routes"))) {
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                log.error("Rejected route table update, keeping the previous routes: {}", e.getMessage());
+            }
+        }
+    }
+
+    public synchronized void reload() {
+        List<Route> compiled = Binder.get(environment)
+                .bind("gateway.routes", Bindable.listOf(RouteDefinition.class))
+                .orElse(List.of())
+                .stream()
+                .map(Route::compile)
+                .toList();
+        RouteTrie next = RouteTrie.compile(compiled);
+        this.routes = compiled;
+        this.trie = next;
+        log.info("Loaded {} gateway routes", compiled.size());
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public Route match(String path) {
+        return trie.match(path);
+    }
+
+    /**
+     * Matches the request path once and memoises the result on the request.
+     */
+    public Route resolve(HttpServletRequest request) {
+        Object cached = request.getAttribute(ROUTE_ATTRIBUTE);
+        if (cached == NO_ROUTE) {
+            return null;
+        }
+        if (cached instanceof Route route) {
+            return route;
+        }
+        Route route = match(request.getRequestURI());
+        request.setAttribute(ROUTE_ATTRIBUTE, route != null ? route : NO_ROUTE);
+        return route;
+    }
+}
@@ -0,0 +1,78 @@
+package com.datarango.gateway.routing;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Character trie over route prefixes. Matching walks the request path once,
+ * remembers the last route whose prefix ends on a segment boundary, and
+ * allocates nothing.
+ */
+final class RouteTrie {
+
+    private final Node root = new Node();
+
+    static RouteTrie compile(List<Route> routes) {
+        RouteTrie trie = new RouteTrie();
+        for (Route route : routes) {
+            Node node = trie.root;
+            String prefix = route.prefix();
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.getOrAdd(prefix.charAt(i));
+            }
+            if (node.route != null) {
+                throw new IllegalArgumentException("Routes " + node.route.id() + " and " + route.id()
+                        + " share the prefix " + prefix);
+            }
+            node.route = route;
+        }
+        return trie;
+    }
+
+    Route match(String path) {
+        Node node = root;
+        Route best = null;
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '/' && node.route != null) {
+                best = node.route;
+            }
+            node = node.child(c);
+            if (node == null) {
+                return best;
+            }
+        }
+        return node.route != null ? node.route : best;
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private Route route;
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node getOrAdd(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insert = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insert);
+            System.arraycopy(children, 0, newChildren, 0, insert);
+            System.arraycopy(keys, insert, newKeys, insert + 1, keys.length - insert);
+            System.arraycopy(children, insert, newChildren, insert + 1, children.length - insert);
+            Node node = new Node();
+            newKeys[insert] = c;
+            newChildren[insert] = node;
+            keys = newKeys;
+            children = newChildren;
+            return node;
+        }
+    }
+}
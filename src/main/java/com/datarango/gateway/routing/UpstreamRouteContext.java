@@ -0,0 +1,25 @@
+package com.datarango.gateway.routing;
+
+/**
+ * Carries the route of the upstream call in progress on this thread down to
+ * the HTTP client, which has no other way to see per-route settings.
+ */
+public final class UpstreamRouteContext {
+
+    private static final ThreadLocal<Route> CURRENT = new ThreadLocal<>();
+
+    private UpstreamRouteContext() {
+    }
+
+    public static void set(Route route) {
+        CURRENT.set(route);
+    }
+
+    public static Route get() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
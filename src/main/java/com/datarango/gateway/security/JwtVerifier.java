@@ -0,0 +1,117 @@
+package com.datarango.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies HMAC-signed tokens with a parser and key built once, and keeps the
+ * verified claims in a cache keyed by the token's SHA-256 digest so repeat
+ * tokens skip the signature check until they expire. Has no servlet or
+ * reactive dependencies so both gateway runtimes share it.
+ */
+@Slf4j
+public class JwtVerifier {
+
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long maxCacheTtlNanos;
+    private final Cache<String, Claims> claimsCache;
+
+    public JwtVerifier(String jwtSecret, long maxCacheSize, long maxCacheTtlSeconds) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.maxCacheTtlNanos = TimeUnit.SECONDS.toNanos(maxCacheTtlSeconds);
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(maxCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        return ttlNanos(claims);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime,
+                            long currentDuration) {
+                        return ttlNanos(claims);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public SecretKey getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * Returns the verified claims, or null when the token is malformed, badly
+     * signed or expired.
+     */
+    public Claims verify(String token) {
+        String digest = digest(token);
+        Claims claims = claimsCache.getIfPresent(digest);
+        if (claims != null) {
+            return claims;
+        }
+
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (Exception e) {
+            log.debug("Rejected bearer token: {}", e.getMessage());
+            return null;
+        }
+        if (ttlNanos(claims) > 0) {
+            claimsCache.put(digest, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Extracts the token from an Authorization header value, or null when it is
+     * not a non-empty bearer token.
+     */
+    public static String bearerToken(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        String token = authorizationHeader.substring(7);
+        return token.isEmpty() ? null : token;
+    }
+
+    private long ttlNanos(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return maxCacheTtlNanos;
+        }
+        long remaining = TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis());
+        return Math.max(0, Math.min(remaining, maxCacheTtlNanos));
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
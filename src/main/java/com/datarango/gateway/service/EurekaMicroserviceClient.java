@@ -1,8 +1,11 @@
 package com.datarango.gateway.service;
 
+import com.datarango.gateway.resilience.UpstreamGuard;
+import com.datarango.gateway.resilience.UpstreamRetryExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -14,29 +17,16 @@ import org.springframework.web.client.RestTemplate;
 public class EurekaMicroserviceClient {
 
     private final RestTemplate restTemplate;
+    private final UpstreamGuard upstreamGuard;
+    private final UpstreamRetryExecutor upstreamRetryExecutor;
 
-    public <T> ResponseEntity<T> callUserService(String endpoint, HttpMethod method, Object body,
+    public <T> ResponseEntity<T> callService(String serviceName, String endpoint, HttpMethod method, Object body,
             Class<T> responseType) {
-        return callService("user-service", endpoint, method, body, responseType);
+        return callService(serviceName, endpoint, method, new HttpHeaders(), body, responseType);
     }
 
-    public <T> ResponseEntity<T> callCoreService(String endpoint, HttpMethod method, Object body,
-            Class<T> responseType) {
-        return callService("core-service", endpoint, method, body, responseType);
-    }
-
-    public <T> ResponseEntity<T> callStreamingService(String endpoint, HttpMethod method, Object body,
-            Class<T> responseType) {
-        return callService("streaming-service", endpoint, method, body, responseType);
-    }
-
-    public <T> ResponseEntity<T> callMessagingService(String endpoint, HttpMethod method, Object body,
-            Class<T> responseType) {
-        return callService("messaging-service", endpoint, method, body, responseType);
-    }
-
-    private <T> ResponseEntity<T> callService(String serviceName, String endpoint, HttpMethod method, Object body,
-            Class<T> responseType) {
+    public <T> ResponseEntity<T> callService(String serviceName, String endpoint, HttpMethod method,
+            HttpHeaders headers, Object body, Class<T> responseType) {
         if (method == null) {
             throw new IllegalArgumentException("HTTP method cannot be null");
         }
@@ -47,7 +37,8 @@ public class EurekaMicroserviceClient {
         String serviceUrl = "http://" + serviceName + endpoint;
         log.debug("Calling service: {} with method: {}", serviceUrl, method);
 
-        HttpEntity<?> requestEntity = body != null ? new HttpEntity<>(body) : HttpEntity.EMPTY;
-        return restTemplate.exchange(serviceUrl, method, requestEntity, responseType);
+        HttpEntity<?> requestEntity = new HttpEntity<>(body, headers);
+        return upstreamRetryExecutor.execute(serviceName, method, () -> upstreamGuard.call(serviceName,
+                () -> restTemplate.exchange(serviceUrl, method, requestEntity, responseType)));
     }
 }
\ No newline at end of file
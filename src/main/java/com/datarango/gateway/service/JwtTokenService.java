@@ -0,0 +1,67 @@
+package com.datarango.gateway.service;
+
+import com.datarango.gateway.metrics.RequestTiming;
+import com.datarango.gateway.metrics.TimingPhase;
+import com.datarango.gateway.security.JwtVerifier;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+
+/**
+ * Verifies bearer tokens once per request. Verified claims are kept on the
+ * request for later filters; {@link JwtVerifier} caches them across requests.
+ */
+@Service
+public class JwtTokenService {
+
+    public static final String CLAIMS_ATTRIBUTE = JwtTokenService.class.getName() + ".claims";
+
+    private static final Object INVALID = new Object();
+
+    private final JwtVerifier verifier;
+
+    public JwtTokenService(@Value("${jwt.secret}") String jwtSecret,
+            @Value("${jwt.cache.max-size:10000}") long maxCacheSize,
+            @Value("${jwt.cache.max-ttl-seconds:300}") long maxCacheTtlSeconds) {
+        this.verifier = new JwtVerifier(jwtSecret, maxCacheSize, maxCacheTtlSeconds);
+    }
+
+    public SecretKey getSigningKey() {
+        return verifier.getSigningKey();
+    }
+
+    /**
+     * Returns the verified claims for the request's bearer token, or null when
+     * there is no token or it is invalid. The outcome is memoised on the request.
+     */
+    public Claims resolveClaims(HttpServletRequest request) {
+        Object cached = request.getAttribute(CLAIMS_ATTRIBUTE);
+        if (cached == INVALID) {
+            return null;
+        }
+        if (cached instanceof Claims claims) {
+            return claims;
+        }
+
+        String token = extractToken(request);
+        Claims claims = null;
+        if (token != null) {
+            long start = System.nanoTime();
+            claims = verifier.verify(token);
+            RequestTiming.record(TimingPhase.JWT, System.nanoTime() - start);
+        }
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims != null ? claims : INVALID);
+        return claims;
+    }
+
+    public Claims verify(String token) {
+        return verifier.verify(token);
+    }
+
+    public static String extractToken(HttpServletRequest request) {
+        return JwtVerifier.bearerToken(request.getHeader("Authorization"));
+    }
+}
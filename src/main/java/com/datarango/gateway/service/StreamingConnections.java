@@ -0,0 +1,50 @@
+package com.datarango.gateway.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts long-lived proxied connections: WebSocket sessions, SSE streams and
+ * other streamed responses still being relayed.
+ */
+@Component
+public class StreamingConnections {
+
+    public enum Type {
+        WEBSOCKET("websocket"), SSE("sse"), STREAM("stream");
+
+        private final String tag;
+
+        Type(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final AtomicInteger[] active = new AtomicInteger[Type.values().length];
+
+    public StreamingConnections(MeterRegistry meterRegistry) {
+        for (Type type : Type.values()) {
+            AtomicInteger count = new AtomicInteger();
+            active[type.ordinal()] = count;
+            Gauge.builder("gateway.streaming.connections", count, AtomicInteger::get)
+                    .description("Proxied connections currently open")
+                    .tag("type", type.tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    public void opened(Type type) {
+        active[type.ordinal()].incrementAndGet();
+    }
+
+    public void closed(Type type) {
+        active[type.ordinal()].decrementAndGet();
+    }
+
+    public int getActive(Type type) {
+        return active[type.ordinal()].get();
+    }
+}
@@ -0,0 +1,162 @@
+package com.datarango.gateway.service;
+
+import com.datarango.gateway.buffer.BufferPool;
+import com.datarango.gateway.exception.ServiceUnavailableException;
+import com.datarango.gateway.headers.ProxyHeaders;
+import com.datarango.gateway.loadbalancer.InstanceStatsRegistry;
+import com.datarango.gateway.resilience.UpstreamGuard;
+import com.datarango.gateway.routing.Route;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * Pass-through proxy that copies request and response bytes between the client
+ * and the upstream through a fixed-size buffer, without deserializing either
+ * body. Response headers are committed as soon as the upstream returns them.
+ */
+@Service
+@Slf4j
+public class StreamingProxyClient {
+
+    private final LoadBalancerClient loadBalancerClient;
+    private final ClientHttpRequestFactory requestFactory;
+    private final UpstreamGuard upstreamGuard;
+    private final InstanceStatsRegistry instanceStats;
+    private final StreamingConnections connections;
+    private final ProxyHeaders proxyHeaders;
+    private final BufferPool bufferPool;
+
+    public StreamingProxyClient(LoadBalancerClient loadBalancerClient,
+            @Qualifier("streamingRequestFactory") ClientHttpRequestFactory requestFactory,
+            UpstreamGuard upstreamGuard,
+            InstanceStatsRegistry instanceStats,
+            StreamingConnections connections,
+            ProxyHeaders proxyHeaders,
+            BufferPool bufferPool) {
+        this.loadBalancerClient = loadBalancerClient;
+        this.requestFactory = requestFactory;
+        this.upstreamGuard = upstreamGuard;
+        this.instanceStats = instanceStats;
+        this.connections = connections;
+        this.proxyHeaders = proxyHeaders;
+        this.bufferPool = bufferPool;
+    }
+
+    public void proxy(Route route, String endpoint, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String serviceName = route.serviceId();
+        ServiceInstance instance = loadBalancerClient.choose(serviceName);
+        if (instance == null) {
+            throw new ServiceUnavailableException("No available instance for " + serviceName);
+        }
+
+        String query = request.getQueryString();
+        URI original = URI.create("http://" + serviceName + endpoint + (query != null ? "?" + query : ""));
+        URI target = loadBalancerClient.reconstructURI(instance, original);
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        log.debug("Streaming {} {} to {}", method, request.getRequestURI(), target);
+
+        ClientHttpRequest upstreamRequest = requestFactory.createRequest(target, method);
+        proxyHeaders.copyRequestHeaders(request, response, route, upstreamRequest.getHeaders());
+
+        if (hasBody(request)) {
+            if (upstreamRequest instanceof StreamingHttpOutputMessage streaming) {
+                streaming.setBody(out -> copy(request.getInputStream(), out, false));
+            } else {
+                copy(request.getInputStream(), upstreamRequest.getBody(), false);
+            }
+        }
+
+        // The guard covers the exchange up to the response headers; the body copy
+        // is bounded by the client, not the upstream, so it is not timed.
+        ClientHttpResponse upstreamResponse;
+        instanceStats.onStart(instance);
+        long start = System.nanoTime();
+        try {
+            // The response is relayed as-is, so a 5xx does not throw; the guard still
+            // has to count it against the breaker and concurrency limit
+            upstreamResponse = upstreamGuard.call(serviceName, upstreamRequest::execute,
+                    StreamingProxyClient::isServerError);
+        } catch (IOException e) {
+            instanceStats.onComplete(instance, System.nanoTime() - start, true);
+            log.error("Upstream {} unreachable: {}", serviceName, e.getMessage());
+            throw new ServiceUnavailableException(serviceName + " is unavailable");
+        } catch (ServiceUnavailableException e) {
+            // Rejected by the guard before the instance was contacted
+            instanceStats.onCancel(instance);
+            throw e;
+        } catch (RuntimeException e) {
+            instanceStats.onComplete(instance, System.nanoTime() - start, true);
+            throw e;
+        }
+        instanceStats.onComplete(instance, System.nanoTime() - start,
+                upstreamResponse.getStatusCode().is5xxServerError());
+
+        try (upstreamResponse) {
+            response.setStatus(upstreamResponse.getStatusCode().value());
+            proxyHeaders.copyResponseHeaders(upstreamResponse.getHeaders(), route, response);
+            response.flushBuffer();
+
+            // Event streams stay open until either side goes away; the fixed buffer
+            // bounds memory and the blocking copy keeps the upstream at client pace.
+            MediaType contentType = upstreamResponse.getHeaders().getContentType();
+            StreamingConnections.Type type = contentType != null
+                    && MediaType.TEXT_EVENT_STREAM.isCompatibleWith(contentType)
+                            ? StreamingConnections.Type.SSE
+                            : StreamingConnections.Type.STREAM;
+            connections.opened(type);
+            try {
+                copy(upstreamResponse.getBody(), response.getOutputStream(), true);
+            } finally {
+                connections.closed(type);
+            }
+        }
+    }
+
+    private static boolean isServerError(ClientHttpResponse response) {
+        try {
+            return response.getStatusCode().is5xxServerError();
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private boolean hasBody(HttpServletRequest request) {
+        return request.getContentLengthLong() > 0 || request.getHeader(HttpHeaders.TRANSFER_ENCODING) != null;
+    }
+
+    private void copy(InputStream in, OutputStream out, boolean flushWhenIdle) throws IOException {
+        byte[] buffer = bufferPool.acquireArray();
+        try {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                // Flush only when the next read would block, so slow streams reach the
+                // client immediately while bulk transfers still fill the output buffer.
+                if (flushWhenIdle && in.available() == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } finally {
+            bufferPool.releaseArray(buffer);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.datarango.gateway.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Answers "does this user have an active subscription" from an in-process
+ * near-cache in front of the shared Redis cache. Concurrent misses for the
+ * same user share one load, and entries that are read after refresh-after
+ * are reloaded in the background so hot users never wait on user-service.
+ * Loads run on the refresh executor and callers wait on a future rather than
+ * inside a map lock, so virtual threads are never pinned during the lookup.
+ */
+@Service
+@Slf4j
+public class SubscriptionService implements DisposableBean {
+
+    private static final String USER_SERVICE = "user-service";
+    private static final int ACTIVE_TTL_SECONDS = 300;
+    private static final int INACTIVE_TTL_SECONDS = 60;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final EurekaMicroserviceClient microserviceClient;
+    private final ExecutorService refreshExecutor;
+    private final AsyncLoadingCache<String, Boolean> nearCache;
+    private final long lookupTimeoutMillis;
+
+    public SubscriptionService(RedisTemplate<String, String> redisTemplate,
+            EurekaMicroserviceClient microserviceClient, MeterRegistry meterRegistry,
+            @Value("${subscription.cache.max-size:50000}") long maxSize,
+            @Value("${subscription.cache.refresh-after-seconds:45}") long refreshAfterSeconds,
+            @Value("${subscription.cache.refresh-threads:4}") int refreshThreads,
+            @Value("${subscription.cache.lookup-timeout-millis:5000}") long lookupTimeoutMillis,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.redisTemplate = redisTemplate;
+        this.microserviceClient = microserviceClient;
+        this.lookupTimeoutMillis = lookupTimeoutMillis;
+        if (virtualThreads) {
+            this.refreshExecutor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("subscription-refresh-", 0).factory());
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.refreshExecutor = Executors.newFixedThreadPool(refreshThreads, runnable -> {
+                Thread thread = new Thread(runnable, "subscription-refresh-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(String userId, Boolean active, long currentTime) {
+                        return ttlNanos(active);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String userId, Boolean active, long currentTime,
+                            long currentDuration) {
+                        return ttlNanos(active);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String userId, Boolean active, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .refreshAfterWrite(Duration.ofSeconds(refreshAfterSeconds))
+                .executor(refreshExecutor)
+                .recordStats()
+                .buildAsync(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache.synchronous(), "subscriptions");
+    }
+
+    public boolean hasActiveSubscription(String userId) {
+        try {
+            return Boolean.TRUE.equals(nearCache.get(userId).get(lookupTimeoutMillis, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.debug("Subscription lookup for {} failed: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    private Boolean load(String userId) {
+        String cacheKey = "subscription:active:" + userId;
+        String cached = null;
+        try {
+            cached = redisTemplate.opsForValue().get(cacheKey);
+        } catch (Exception e) {
+            // Redis unavailable - proceed without cache
+        }
+
+        if ("true".equals(cached)) {
+            return true;
+        }
+
+        if ("false".equals(cached)) {
+            return false;
+        }
+
+        boolean isActive = fetchFromUserService(userId);
+        cacheSubscriptionStatus(cacheKey, isActive, isActive ? ACTIVE_TTL_SECONDS : INACTIVE_TTL_SECONDS);
+        return isActive;
+    }
+
+    private boolean fetchFromUserService(String userId) {
+        @SuppressWarnings("rawtypes")
+        ResponseEntity<Map> userResponse = microserviceClient.callService(USER_SERVICE, "/users/" + userId,
+                HttpMethod.GET, null, Map.class);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> user = (Map<String, Object>) userResponse.getBody();
+        if (user == null) {
+            return false;
+        }
+
+        String subscriptionId = (String) user.get("subscriptionId");
+        if (subscriptionId == null) {
+            return false;
+        }
+
+        @SuppressWarnings("rawtypes")
+        ResponseEntity<Map> subResponse = microserviceClient.callService(USER_SERVICE,
+                "/users/subscriptions/" + subscriptionId, HttpMethod.GET, null, Map.class);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> subscription = (Map<String, Object>) subResponse.getBody();
+        if (subscription == null) {
+            return false;
+        }
+
+        String expiryStr = (String) subscription.get("expiryDate");
+        return expiryStr != null && LocalDateTime.parse(expiryStr).isAfter(LocalDateTime.now());
+    }
+
+    private void cacheSubscriptionStatus(String cacheKey, boolean status, int seconds) {
+        try {
+            redisTemplate.opsForValue().set(cacheKey, String.valueOf(status), Duration.ofSeconds(seconds));
+        } catch (Exception e) {
+        }
+    }
+
+    private static long ttlNanos(Boolean active) {
+        return TimeUnit.SECONDS.toNanos(Boolean.TRUE.equals(active) ? ACTIVE_TTL_SECONDS : INACTIVE_TTL_SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+}
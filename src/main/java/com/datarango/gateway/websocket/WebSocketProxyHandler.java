@@ -0,0 +1,221 @@
+package com.datarango.gateway.websocket;
+
+import com.datarango.gateway.service.StreamingConnections;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relays WebSocket frames between a client session and a session opened to
+ * the route's upstream. The upstream is asked for one frame at a time and
+ * the next is requested only once the previous one reached the client's send
+ * queue, which is capped per session; client frames are forwarded
+ * synchronously, so a slow upstream stalls the client's reads.
+ */
+@Component
+@Slf4j
+public class WebSocketProxyHandler extends AbstractWebSocketHandler {
+
+    public static final String TARGET_ATTRIBUTE = WebSocketProxyHandler.class.getName() + ".target";
+
+    private static final String UPSTREAM_ATTRIBUTE = WebSocketProxyHandler.class.getName() + ".upstream";
+    private static final CloseStatus BAD_GATEWAY = new CloseStatus(1014, "Upstream unavailable");
+
+    // Set by the handshake itself or refused by java.net.http
+    private static final Set<String> SKIPPED_HEADERS = Set.of("connection", "upgrade", "host", "content-length",
+            "keep-alive", "transfer-encoding", "te", "trailer", "proxy-authorization", "proxy-authenticate",
+            "expect");
+
+    /**
+     * @param endpoint upstream path including any query string
+     */
+    public record Target(String serviceId, String endpoint) {
+    }
+
+    private final LoadBalancerClient loadBalancerClient;
+    private final StreamingConnections connections;
+    private final WebSocketProxyProperties properties;
+    private final HttpClient httpClient;
+
+    public WebSocketProxyHandler(LoadBalancerClient loadBalancerClient, StreamingConnections connections,
+            WebSocketProxyProperties properties) {
+        this.loadBalancerClient = loadBalancerClient;
+        this.connections = connections;
+        this.properties = properties;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMillis()))
+                .build();
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        connections.opened(StreamingConnections.Type.WEBSOCKET);
+        Target target = (Target) session.getAttributes().get(TARGET_ATTRIBUTE);
+        ServiceInstance instance = loadBalancerClient.choose(target.serviceId());
+        if (instance == null) {
+            session.close(BAD_GATEWAY);
+            return;
+        }
+
+        URI uri = loadBalancerClient.reconstructURI(instance,
+                URI.create("http://" + target.serviceId() + target.endpoint()));
+        URI wsUri = URI.create(("https".equals(uri.getScheme()) ? "wss" : "ws")
+                + uri.toString().substring(uri.getScheme().length()));
+
+        WebSocketSession client = new ConcurrentWebSocketSessionDecorator(session,
+                properties.getSendTimeLimitMillis(), properties.getSendBufferLimitBytes(),
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE);
+        WebSocket.Builder builder = httpClient.newWebSocketBuilder()
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMillis()));
+        copyHeaders(session.getHandshakeHeaders(), builder);
+
+        try {
+            WebSocket upstream = builder.buildAsync(wsUri, new UpstreamListener(client))
+                    .get(properties.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS);
+            session.getAttributes().put(UPSTREAM_ATTRIBUTE, upstream);
+        } catch (Exception e) {
+            log.warn("WebSocket connect to {} failed: {}", wsUri, e.getMessage());
+            session.close(BAD_GATEWAY);
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        WebSocket upstream = upstream(session);
+        if (upstream != null) {
+            upstream.sendText(message.getPayload(), message.isLast())
+                    .get(properties.getSendTimeLimitMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        WebSocket upstream = upstream(session);
+        if (upstream != null) {
+            upstream.sendBinary(message.getPayload(), message.isLast())
+                    .get(properties.getSendTimeLimitMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+        log.debug("WebSocket session {} failed: {}", session.getId(), exception.getMessage());
+        if (session.isOpen()) {
+            session.close(CloseStatus.SERVER_ERROR);
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        connections.closed(StreamingConnections.Type.WEBSOCKET);
+        WebSocket upstream = upstream(session);
+        if (upstream != null && !upstream.isOutputClosed()) {
+            upstream.sendClose(sendableCode(status.getCode()), "")
+                    .orTimeout(properties.getSendTimeLimitMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((ws, error) -> upstream.abort());
+        }
+    }
+
+    private static WebSocket upstream(WebSocketSession session) {
+        return (WebSocket) session.getAttributes().get(UPSTREAM_ATTRIBUTE);
+    }
+
+    private static void copyHeaders(HttpHeaders headers, WebSocket.Builder builder) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            String name = header.getKey().toLowerCase(Locale.ROOT);
+            if (SKIPPED_HEADERS.contains(name) || name.startsWith("sec-websocket-")) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                builder.header(header.getKey(), value);
+            }
+        }
+    }
+
+    // 1005, 1006 and 1015 only describe how a connection ended and may not be sent
+    private static int sendableCode(int code) {
+        return code == 1005 || code == 1006 || code == 1015 ? WebSocket.NORMAL_CLOSURE : code;
+    }
+
+    /**
+     * Forwards upstream frames to the client one at a time.
+     */
+    private static final class UpstreamListener implements WebSocket.Listener {
+
+        private final WebSocketSession client;
+
+        private UpstreamListener(WebSocketSession client) {
+            this.client = client;
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket upstream, CharSequence data, boolean last) {
+            relay(upstream, new TextMessage(data.toString(), last));
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket upstream, ByteBuffer data, boolean last) {
+            ByteBuffer copy = ByteBuffer.allocate(data.remaining()).put(data).flip();
+            relay(upstream, new BinaryMessage(copy, last));
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket upstream, int statusCode, String reason) {
+            close(new CloseStatus(sendableCode(statusCode), reason));
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket upstream, Throwable error) {
+            log.debug("Upstream WebSocket failed: {}", error.getMessage());
+            close(CloseStatus.SERVER_ERROR);
+        }
+
+        private void relay(WebSocket upstream, WebSocketMessage<?> message) {
+            try {
+                client.sendMessage(message);
+                upstream.request(1);
+            } catch (Exception e) {
+                // Client gone or its send queue overflowed
+                log.debug("Dropping WebSocket relay for {}: {}", client.getId(), e.getMessage());
+                upstream.abort();
+                close(CloseStatus.SESSION_NOT_RELIABLE);
+            }
+        }
+
+        private void close(CloseStatus status) {
+            try {
+                if (client.isOpen()) {
+                    client.close(status);
+                }
+            } catch (Exception e) {
+                log.debug("Closing WebSocket session {} failed: {}", client.getId(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.datarango.gateway.websocket;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "gateway.proxy.websocket")
+public class WebSocketProxyProperties {
+
+    private long connectTimeoutMillis = 5000;
+    // Largest single message accepted from a client; larger ones close the session
+    private int maxMessageBytes = 64 * 1024;
+    // Upstream frames queued for a slow client before the session is closed
+    private int sendBufferLimitBytes = 512 * 1024;
+    private int sendTimeLimitMillis = 10000;
+    private long idleTimeoutMillis = 300000;
+}
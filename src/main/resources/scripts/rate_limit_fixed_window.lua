@@ -0,0 +1,21 @@
+-- Fixed window counter.
+-- KEYS[1] counter key, ARGV[1] limit, ARGV[2] window in milliseconds
+-- Returns { allowed (1/0), remaining, milliseconds to wait before retrying }
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+
+local count = tonumber(redis.call('GET', KEYS[1]) or '0')
+if count >= limit then
+    local ttl = redis.call('PTTL', KEYS[1])
+    if ttl < 0 then
+        redis.call('PEXPIRE', KEYS[1], window)
+        ttl = window
+    end
+    return { 0, 0, ttl }
+end
+
+count = redis.call('INCR', KEYS[1])
+if redis.call('PTTL', KEYS[1]) < 0 then
+    redis.call('PEXPIRE', KEYS[1], window)
+end
+return { 1, limit - count, 0 }
@@ -0,0 +1,26 @@
+-- Sliding log: exact, one sorted-set entry per admitted request in the window.
+-- KEYS[1] sorted set key, ARGV[1] limit, ARGV[2] window in milliseconds
+-- Returns { allowed (1/0), remaining, milliseconds to wait before retrying }
+if redis.replicate_commands then
+    redis.replicate_commands()
+end
+
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+local count = redis.call('ZCARD', KEYS[1])
+if count >= limit then
+    local retry = window
+    local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES')
+    if oldest[2] then
+        retry = tonumber(oldest[2]) + window - now
+    end
+    return { 0, 0, math.max(1, retry) }
+end
+
+redis.call('ZADD', KEYS[1], now, time[1] .. time[2] .. ':' .. count)
+redis.call('PEXPIRE', KEYS[1], window)
+return { 1, limit - count - 1, 0 }
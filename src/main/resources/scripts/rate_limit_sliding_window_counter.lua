@@ -0,0 +1,42 @@
+-- Sliding window counter: weights the previous window's count by how much of
+-- it still overlaps the sliding window. One hash per key, O(1) memory.
+-- KEYS[1] hash key, ARGV[1] limit, ARGV[2] window in milliseconds
+-- Hash fields: w = current window index, c = current window count, p = previous window count
+-- Returns { allowed (1/0), remaining, milliseconds to wait before retrying }
+if redis.replicate_commands then
+    redis.replicate_commands()
+end
+
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local current = math.floor(now / window)
+
+local state = redis.call('HMGET', KEYS[1], 'w', 'c', 'p')
+local w = tonumber(state[1])
+local c = tonumber(state[2]) or 0
+local p = tonumber(state[3]) or 0
+if w == nil or current > w + 1 then
+    c = 0
+    p = 0
+elseif current == w + 1 then
+    p = c
+    c = 0
+end
+
+local elapsed = now - current * window
+local estimated = p * (window - elapsed) / window + c
+if estimated + 1 > limit then
+    local retry = window - elapsed
+    if c + 1 <= limit and p > 0 then
+        -- Wait until enough of the previous window has slid out
+        retry = math.ceil(window * (1 - (limit - c - 1) / p) - elapsed)
+    end
+    return { 0, 0, math.max(1, retry) }
+end
+
+c = c + 1
+redis.call('HSET', KEYS[1], 'w', current, 'c', c, 'p', p)
+redis.call('PEXPIRE', KEYS[1], window * 2)
+return { 1, math.max(0, math.floor(limit - estimated - 1)), 0 }
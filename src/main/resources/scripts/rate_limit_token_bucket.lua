@@ -0,0 +1,31 @@
+-- Token bucket: refills limit tokens per window up to the burst size. One hash
+-- per key, O(1) memory.
+-- KEYS[1] hash key, ARGV[1] tokens per window, ARGV[2] window in milliseconds, ARGV[3] burst size
+-- Hash fields: t = tokens left, ts = last refill time in milliseconds
+-- Returns { allowed (1/0), remaining, milliseconds to wait before retrying }
+if redis.replicate_commands then
+    redis.replicate_commands()
+end
+
+local rate = tonumber(ARGV[1]) / tonumber(ARGV[2])
+local capacity = tonumber(ARGV[3])
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local state = redis.call('HMGET', KEYS[1], 't', 'ts')
+local tokens = tonumber(state[1])
+local ts = tonumber(state[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = now
+end
+
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+if tokens < 1 then
+    return { 0, 0, math.max(1, math.ceil((1 - tokens) / rate)) }
+end
+
+tokens = tokens - 1
+redis.call('HSET', KEYS[1], 't', tostring(tokens), 'ts', now)
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate) + 1000)
+return { 1, math.floor(tokens), 0 }
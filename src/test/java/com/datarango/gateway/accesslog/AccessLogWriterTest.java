@@ -0,0 +1,47 @@
+package com.datarango.gateway.accesslog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessLogWriterTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void dropsWhenFullAndWritesJsonLinesInOrder() throws Exception {
+		AccessLogProperties properties = new AccessLogProperties();
+		// Not started, so the test drives the drain itself
+		properties.setEnabled(false);
+		properties.setCapacity(4);
+		properties.setOutput("file");
+		properties.setFile(dir.resolve("access.log").toString());
+		AccessLogWriter writer = new AccessLogWriter(properties, new SimpleMeterRegistry());
+
+		for (int i = 0; i < 4; i++) {
+			assertTrue(writer.publish(0, "GET", "/api/core/" + i, "core", "10.0.0.1", 200, 1_500_000));
+		}
+		assertFalse(writer.publish(0, "GET", "/api/core/\"x\"", "core", "10.0.0.1", 200, 1_000));
+		assertEquals(1, writer.getDropped());
+
+		assertEquals(4, writer.drainBatch());
+		assertTrue(writer.publish(0, "POST", "/api/core/\"x\"", null, "10.0.0.1", 503, 1_000));
+		assertEquals(1, writer.drainBatch());
+		writer.destroy();
+
+		List<String> lines = Files.readAllLines(dir.resolve("access.log"));
+		assertEquals(5, lines.size());
+		assertEquals("{\"ts\":\"1970-01-01T00:00:00Z\",\"method\":\"GET\",\"path\":\"/api/core/0\",\"route\":\"core\","
+				+ "\"status\":200,\"duration_us\":1500,\"client_ip\":\"10.0.0.1\"}", lines.get(0));
+		assertTrue(lines.get(4).contains("\"path\":\"/api/core/\\\"x\\\"\",\"route\":null,\"status\":503"));
+	}
+}
@@ -0,0 +1,141 @@
+package com.datarango.gateway.batch;
+
+import com.datarango.gateway.dto.BatchRequest;
+import com.datarango.gateway.dto.BatchResult;
+import com.datarango.gateway.headers.HeaderProperties;
+import com.datarango.gateway.headers.ProxyHeaders;
+import com.datarango.gateway.routing.RouteTable;
+import com.datarango.gateway.service.EurekaMicroserviceClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchServiceTest {
+
+	private static BatchRequest.Item item(String id, String path) {
+		BatchRequest.Item item = new BatchRequest.Item();
+		item.setId(id);
+		item.setPath(path);
+		return item;
+	}
+
+	@Test
+	void returnsResultsInOrderAndTimesOutStragglers() {
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("gateway.routes[0].id", "users")
+				.withProperty("gateway.routes[0].prefix", "/api/users")
+				.withProperty("gateway.routes[0].service-id", "user-service")
+				.withProperty("gateway.routes[1].id", "core")
+				.withProperty("gateway.routes[1].prefix", "/api/core")
+				.withProperty("gateway.routes[1].service-id", "core-service");
+
+		EurekaMicroserviceClient client = mock(EurekaMicroserviceClient.class);
+		when(client.callService(eq("user-service"), eq("/42?fields=name"), eq(HttpMethod.GET), any(HttpHeaders.class),
+				any(), eq(byte[].class)))
+				.thenReturn(ResponseEntity.ok("{\"name\":\"Ada\"}".getBytes(StandardCharsets.UTF_8)));
+		when(client.callService(eq("core-service"), eq("/slow"), eq(HttpMethod.GET), any(HttpHeaders.class), any(),
+				eq(byte[].class)))
+				.thenAnswer(invocation -> {
+					Thread.sleep(2000);
+					return ResponseEntity.ok(new byte[0]);
+				});
+
+		BatchProperties properties = new BatchProperties();
+		BatchService service = new BatchService(new RouteTable(environment), client,
+				new ProxyHeaders(new HeaderProperties()), new ObjectMapper(), properties, false);
+
+		BatchRequest batch = new BatchRequest();
+		batch.setTimeoutMillis(200L);
+		batch.setRequests(List.of(item("slow", "/api/core/slow"), item("user", "/api/users/42?fields=name"),
+				item("missing", "/api/unknown")));
+
+		List<String> completionOrder = new ArrayList<>();
+		try {
+			List<BatchResult> results = service.execute(batch, new MockHttpServletRequest("POST", "/api/batch"),
+					new MockHttpServletResponse(), result -> completionOrder.add(result.getId()));
+
+			assertEquals(List.of("slow", "user", "missing"), results.stream().map(BatchResult::getId).toList());
+			assertEquals(504, results.get(0).getStatus());
+			assertEquals(200, results.get(1).getStatus());
+			assertEquals("Ada", results.get(1).getBody().get("name").asText());
+			assertEquals(400, results.get(2).getStatus());
+			assertEquals("slow", completionOrder.get(2));
+			assertTrue(completionOrder.containsAll(List.of("user", "missing")));
+		} finally {
+			service.destroy();
+		}
+	}
+
+	@Test
+	void subRequestsCarryTheBatchHeadersAndOnlyAllowedItemHeaders() {
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("gateway.routes[0].id", "users")
+				.withProperty("gateway.routes[0].prefix", "/api/users")
+				.withProperty("gateway.routes[0].service-id", "user-service")
+				.withProperty("gateway.routes[0].request-headers.remove[0]", "Cookie")
+				.withProperty("gateway.routes[0].request-headers.add[X-Gateway-Route]", "users");
+
+		EurekaMicroserviceClient client = mock(EurekaMicroserviceClient.class);
+		when(client.callService(eq("user-service"), eq("/42"), eq(HttpMethod.GET), any(HttpHeaders.class), any(),
+				eq(byte[].class)))
+				.thenReturn(ResponseEntity.ok(new byte[0]));
+
+		BatchService service = new BatchService(new RouteTable(environment), client,
+				new ProxyHeaders(new HeaderProperties()), new ObjectMapper(), new BatchProperties(), false);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/batch");
+		request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer batch-token");
+		request.addHeader("X-Correlation-ID", "batch-1");
+		request.addHeader(HttpHeaders.HOST, "api.datarango.com");
+		request.addHeader(HttpHeaders.TE, "trailers");
+		request.addHeader(HttpHeaders.CONTENT_LENGTH, "512");
+		request.addHeader(HttpHeaders.COOKIE, "session=abc");
+
+		BatchRequest.Item item = item("user", "/api/users/42");
+		item.setHeaders(Map.of(HttpHeaders.AUTHORIZATION, "Bearer other-token", HttpHeaders.HOST, "evil.example",
+				HttpHeaders.ACCEPT_LANGUAGE, "fr", HttpHeaders.COOKIE, "session=xyz",
+				"X-Gateway-Route", "spoofed"));
+		BatchRequest batch = new BatchRequest();
+		batch.setRequests(List.of(item));
+
+		try {
+			service.execute(batch, request, new MockHttpServletResponse(), result -> {
+			});
+		} finally {
+			service.destroy();
+		}
+
+		ArgumentCaptor<HttpHeaders> captor = ArgumentCaptor.forClass(HttpHeaders.class);
+		verify(client).callService(eq("user-service"), eq("/42"), eq(HttpMethod.GET), captor.capture(), any(),
+				eq(byte[].class));
+		HttpHeaders headers = captor.getValue();
+		assertEquals("Bearer batch-token", headers.getFirst(HttpHeaders.AUTHORIZATION));
+		assertEquals("batch-1", headers.getFirst("X-Correlation-ID"));
+		assertEquals("fr", headers.getFirst(HttpHeaders.ACCEPT_LANGUAGE));
+		assertEquals("users", headers.getFirst("X-Gateway-Route"));
+		assertNull(headers.getFirst(HttpHeaders.HOST));
+		assertNull(headers.getFirst(HttpHeaders.TE));
+		assertNull(headers.getFirst(HttpHeaders.CONTENT_LENGTH));
+		assertNull(headers.getFirst(HttpHeaders.COOKIE));
+	}
+}
@@ -0,0 +1,74 @@
+package com.datarango.gateway.benchmark;
+
+import com.datarango.gateway.dto.ApiResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON round trip of the gateway's response envelope with a typical list
+ * payload, as the auth and error endpoints produce it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseBenchmark {
+
+	private static final TypeReference<ApiResponse<List<Map<String, Object>>>> RESPONSE_TYPE = new TypeReference<>() {
+	};
+
+	private ObjectMapper objectMapper;
+	private ApiResponse<List<Map<String, Object>>> response;
+	private ApiResponse<Object> error;
+	private byte[] json;
+
+	@Setup
+	public void setUp() throws Exception {
+		objectMapper = new ObjectMapper();
+		List<Map<String, Object>> items = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			Map<String, Object> item = new LinkedHashMap<>();
+			item.put("id", i);
+			item.put("name", "item-" + i);
+			item.put("price", 9.99 * i);
+			item.put("tags", List.of("a", "b", "c"));
+			items.add(item);
+		}
+		response = ApiResponse.success(items);
+		error = ApiResponse.error("Service unavailable", "user-service did not respond");
+		json = objectMapper.writeValueAsBytes(response);
+	}
+
+	@Benchmark
+	public byte[] serializeSuccess() throws Exception {
+		return objectMapper.writeValueAsBytes(response);
+	}
+
+	@Benchmark
+	public byte[] serializeError() throws Exception {
+		return objectMapper.writeValueAsBytes(error);
+	}
+
+	@Benchmark
+	public ApiResponse<List<Map<String, Object>>> deserializeSuccess() throws Exception {
+		return objectMapper.readValue(json, RESPONSE_TYPE);
+	}
+}
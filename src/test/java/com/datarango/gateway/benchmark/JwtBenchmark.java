@@ -0,0 +1,70 @@
+package com.datarango.gateway.benchmark;
+
+import com.datarango.gateway.security.JwtVerifier;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bearer token handling as {@code BearerTokenAuthenticationFilter} sees it:
+ * header parsing, a full signature check and the claims cache hit.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+	static final String SECRET = "YourSecretKeyShouldBeAtLeast256BitsLongForHS256AlgorithmToWorkProperlyAndSecurely";
+
+	private JwtVerifier verifier;
+	private JwtParser parser;
+	private String token;
+	private String header;
+
+	@Setup
+	public void setUp() {
+		verifier = new JwtVerifier(SECRET, 10_000, 300);
+		parser = Jwts.parserBuilder().setSigningKey(verifier.getSigningKey()).build();
+		token = Jwts.builder()
+				.setSubject("bench-user")
+				.claim("roles", "user")
+				.setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+		header = "Bearer " + token;
+		verifier.verify(token);
+	}
+
+	@Benchmark
+	public String extractBearerToken() {
+		return JwtVerifier.bearerToken(header);
+	}
+
+	@Benchmark
+	public Claims parseAndVerifySignature() {
+		return parser.parseClaimsJws(token).getBody();
+	}
+
+	@Benchmark
+	public Claims verifyCached() {
+		return verifier.verify(JwtVerifier.bearerToken(header));
+	}
+}
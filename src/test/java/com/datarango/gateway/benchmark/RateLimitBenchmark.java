@@ -0,0 +1,109 @@
+package com.datarango.gateway.benchmark;
+
+import com.datarango.gateway.ratelimit.LocalRateLimiter;
+import com.datarango.gateway.ratelimit.RateLimitDecision;
+import com.datarango.gateway.ratelimit.RateLimitPolicies;
+import com.datarango.gateway.ratelimit.RateLimitPolicy;
+import com.datarango.gateway.ratelimit.RateLimitProperties;
+import com.datarango.gateway.ratelimit.RedisRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limit decisions for a spread of client IPs. The Redis limiter runs
+ * against an in-memory stand-in, so the numbers cover key building and
+ * decision handling but not the network round trip. The local limiter's sync
+ * has no Redis to reach and stays in local-only mode.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RateLimitBenchmark {
+
+	private static final int CLIENTS = 1024;
+
+	private RateLimitPolicies policies;
+	private LocalRateLimiter localRateLimiter;
+	private RedisRateLimiter redisRateLimiter;
+	private String[] clientIps;
+
+	@Setup
+	public void setUp() {
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setRequestsPerMinute(Integer.MAX_VALUE);
+		RateLimitProperties.Route users = new RateLimitProperties.Route();
+		users.setPrefix("/api/users");
+		properties.setRoutes(List.of(users));
+
+		policies = new RateLimitPolicies(properties);
+		localRateLimiter = new LocalRateLimiter(new RedisTemplate<>(), null, properties, "api-gateway");
+		redisRateLimiter = new RedisRateLimiter(new FakeRedisTemplate());
+		clientIps = new String[CLIENTS];
+		for (int i = 0; i < CLIENTS; i++) {
+			clientIps[i] = "10.0." + (i >> 8) + "." + (i & 0xff);
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws InterruptedException {
+		localRateLimiter.destroy();
+	}
+
+	private String clientIp() {
+		return clientIps[ThreadLocalRandom.current().nextInt(CLIENTS)];
+	}
+
+	@Benchmark
+	public RateLimitPolicy resolvePolicy() {
+		return policies.resolve("/api/users/42/profile");
+	}
+
+	@Benchmark
+	public RateLimitDecision localDecision() {
+		return localRateLimiter.tryAcquire(clientIp(), policies.resolve("/api/users/42/profile"));
+	}
+
+	@Benchmark
+	public RateLimitDecision redisDecision() {
+		return redisRateLimiter.tryAcquire(clientIp(), policies.resolve("/api/users/42/profile"));
+	}
+
+	/**
+	 * Answers rate limit scripts from an in-memory counter per key.
+	 */
+	static class FakeRedisTemplate extends RedisTemplate<String, String> {
+
+		private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+			long limit = Long.parseLong((String) args[0]);
+			long count = counters.computeIfAbsent(keys.get(0), key -> new AtomicLong()).incrementAndGet();
+			return (T) (count <= limit ? List.of(1L, limit - count, 0L) : List.of(0L, 0L, 1000L));
+		}
+	}
+}
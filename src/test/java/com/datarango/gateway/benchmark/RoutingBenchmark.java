@@ -0,0 +1,81 @@
+package com.datarango.gateway.benchmark;
+
+import com.datarango.gateway.routing.Route;
+import com.datarango.gateway.routing.RouteTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Longest-prefix route matching and prefix stripping over the configured
+ * routes plus enough siblings to exercise the trie's branching.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RoutingBenchmark {
+
+	private static final String[] SERVICES = { "users", "core", "streaming", "messaging", "billing", "search",
+			"notifications", "analytics" };
+
+	private RouteTable routeTable;
+	private String[] paths;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		MockEnvironment environment = new MockEnvironment();
+		int index = 0;
+		for (String service : SERVICES) {
+			addRoute(environment, index++, service, "/api/" + service);
+			addRoute(environment, index++, service + "-v2", "/api/v2/" + service);
+		}
+		routeTable = new RouteTable(environment);
+		paths = new String[] {
+				"/api/users/42/profile",
+				"/api/core/items?page=2",
+				"/api/v2/streaming/live/abc",
+				"/api/messaging",
+				"/api/v2/analytics/reports/daily",
+				"/api/unknown/path",
+		};
+	}
+
+	private static void addRoute(MockEnvironment environment, int index, String id, String prefix) {
+		String key = "gateway.routes[" + index + "].";
+		environment.setProperty(key + "id", id);
+		environment.setProperty(key + "prefix", prefix);
+		environment.setProperty(key + "service-id", id + "-service");
+	}
+
+	private String nextPath() {
+		String path = paths[next];
+		next = next + 1 == paths.length ? 0 : next + 1;
+		return path;
+	}
+
+	@Benchmark
+	public Route match() {
+		return routeTable.match(nextPath());
+	}
+
+	@Benchmark
+	public String matchAndRewrite() {
+		String path = nextPath();
+		Route route = routeTable.match(path);
+		return route != null ? route.endpoint(path) : null;
+	}
+}
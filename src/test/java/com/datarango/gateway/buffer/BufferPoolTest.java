@@ -0,0 +1,126 @@
+package com.datarango.gateway.buffer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BufferPoolTest {
+
+	private static BufferPool pool(SimpleMeterRegistry registry) {
+		BufferPoolProperties properties = new BufferPoolProperties();
+		properties.setMinBufferSize(1024);
+		properties.setMaxBufferSize(8192);
+		properties.setMaxBodySize(65536);
+		properties.setLeakDetection(true);
+		return new BufferPool(properties, registry, 512);
+	}
+
+	@Test
+	void readsBodiesAcrossSizeClassesAndReusesBuffers() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		BufferPool pool = pool(registry);
+		byte[] body = new byte[5000];
+		Arrays.fill(body, (byte) 'x');
+
+		// Unknown length starts in the smallest class and grows to 8 KiB
+		try (PooledBuffer buffer = pool.read(new ByteArrayInputStream(body), -1)) {
+			assertEquals(5000, buffer.length());
+			assertEquals(8192, buffer.capacity());
+			assertTrue(buffer.isDirect());
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			buffer.writeTo(out);
+			buffer.writeTo(out);
+			assertArrayEquals(body, Arrays.copyOf(out.toByteArray(), 5000));
+			assertEquals(10000, out.size());
+			assertEquals(1, pool.getInUse());
+		}
+		assertEquals(0, pool.getInUse());
+
+		double allocated = registry.get("gateway.buffers.allocations").tag("type", "direct").counter().count();
+		try (PooledBuffer buffer = pool.read(new ByteArrayInputStream(body), body.length)) {
+			assertEquals(8192, buffer.capacity());
+		}
+		assertEquals(allocated, registry.get("gateway.buffers.allocations").tag("type", "direct").counter().count());
+
+		try (PooledBuffer oversized = pool.acquire(10000)) {
+			assertFalse(oversized.isDirect());
+		}
+		assertEquals(0, pool.getLeakCount());
+	}
+
+	@Test
+	void sizesFromDeclaredLengthOnlyUpToTheLargestClass() throws Exception {
+		BufferPool pool = pool(new SimpleMeterRegistry());
+
+		// A large declared length with a short body must not allocate the declared size
+		try (PooledBuffer buffer = pool.read(new ByteArrayInputStream(new byte[10]), 60000)) {
+			assertEquals(10, buffer.length());
+			assertEquals(8192, buffer.capacity());
+			assertTrue(buffer.isDirect());
+		}
+
+		assertThrows(BodyTooLargeException.class,
+				() -> pool.read(new ByteArrayInputStream(new byte[10]), 2_000_000_000L));
+		assertThrows(BodyTooLargeException.class,
+				() -> pool.read(new ByteArrayInputStream(new byte[70000]), -1));
+		assertEquals(0, pool.getInUse());
+	}
+
+	@Test
+	void releasesABufferOnceWhenClosedConcurrently() throws Exception {
+		BufferPool pool = pool(new SimpleMeterRegistry());
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			for (int round = 0; round < 200; round++) {
+				PooledBuffer buffer = pool.acquire(1024);
+				CountDownLatch start = new CountDownLatch(1);
+				CountDownLatch done = new CountDownLatch(8);
+				for (int i = 0; i < 8; i++) {
+					executor.execute(() -> {
+						try {
+							start.await();
+							buffer.close();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						} finally {
+							done.countDown();
+						}
+					});
+				}
+				start.countDown();
+				assertTrue(done.await(5, TimeUnit.SECONDS));
+				assertEquals(0, pool.getInUse());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void reportsBuffersCollectedWithoutRelease() throws Exception {
+		BufferPool pool = pool(new SimpleMeterRegistry());
+		pool.acquire(100);
+		assertEquals(1, pool.getInUse());
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (pool.getLeakCount() == 0 && System.nanoTime() < deadline) {
+			System.gc();
+			Thread.sleep(20);
+		}
+		assertEquals(1, pool.getLeakCount());
+		assertEquals(0, pool.getInUse());
+	}
+}
@@ -0,0 +1,161 @@
+package com.datarango.gateway.cache;
+
+import com.datarango.gateway.headers.HeaderProperties;
+import com.datarango.gateway.headers.ProxyHeaders;
+import com.datarango.gateway.routing.RouteTable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCacheFilterTest {
+
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+	private String cacheControl = "public, max-age=60";
+	private String contentEncoding;
+	private String body = "{\"items\":[]}";
+	private boolean committedByUpstream;
+
+	private final ResponseCacheProperties properties = new ResponseCacheProperties();
+
+	private final ResponseCacheFilter filter = new ResponseCacheFilter(
+			new ResponseCache(properties, null, new ObjectMapper(), new SimpleMeterRegistry()),
+			new RouteTable(new MockEnvironment()
+					.withProperty("gateway.routes[0].prefix", "/api/core")
+					.withProperty("gateway.routes[0].service-id", "core-service")
+					.withProperty("gateway.routes[0].filters[0]", "cache")),
+			new ProxyHeaders(new HeaderProperties()));
+
+	private final HttpServlet upstream = new HttpServlet() {
+		@Override
+		protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+			upstreamCalls.incrementAndGet();
+			response.setContentType("application/json");
+			response.setHeader("Cache-Control", cacheControl);
+			if (contentEncoding != null) {
+				response.setHeader("Content-Encoding", contentEncoding);
+			}
+			response.setHeader("X-Correlation-ID", request.getHeader("X-Correlation-ID"));
+			response.getWriter().write(body);
+			response.flushBuffer();
+			committedByUpstream = response.isCommitted();
+		}
+	};
+
+	private MockHttpServletResponse get(String ifNoneMatch) throws Exception {
+		return get(ifNoneMatch, null);
+	}
+
+	private MockHttpServletResponse get(String ifNoneMatch, String correlationId) throws Exception {
+		return get(ifNoneMatch, correlationId, null);
+	}
+
+	private MockHttpServletResponse get(String ifNoneMatch, String correlationId, String acceptEncoding)
+			throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/core/items");
+		if (acceptEncoding != null) {
+			request.addHeader("Accept-Encoding", acceptEncoding);
+		}
+		if (correlationId != null) {
+			request.addHeader("X-Correlation-ID", correlationId);
+		}
+		request.addHeader("Authorization", "Bearer token");
+		if (ifNoneMatch != null) {
+			request.addHeader("If-None-Match", ifNoneMatch);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain(upstream));
+		return response;
+	}
+
+	@Test
+	void servesRepeatedGetsFromTheCache() throws Exception {
+		MockHttpServletResponse first = get(null);
+		MockHttpServletResponse second = get(null);
+
+		assertEquals(1, upstreamCalls.get());
+		assertEquals("{\"items\":[]}", second.getContentAsString());
+		assertEquals(first.getHeader("ETag"), second.getHeader("ETag"));
+		assertNotNull(second.getHeader("Age"));
+	}
+
+	@Test
+	void answersMatchingIfNoneMatchWith304() throws Exception {
+		String etag = get(null).getHeader("ETag");
+		MockHttpServletResponse response = get(etag);
+
+		assertEquals(304, response.getStatus());
+		assertEquals(0, response.getContentAsByteArray().length);
+		assertEquals(1, upstreamCalls.get());
+	}
+
+	@Test
+	void doesNotStorePrivateResponses() throws Exception {
+		cacheControl = "private, max-age=60";
+		get(null);
+		get(null);
+
+		assertEquals(2, upstreamCalls.get());
+		assertTrue(committedByUpstream, "uncacheable responses should stream through");
+	}
+
+	@Test
+	void holdsBackCacheableBodiesUntilTheyAreStored() throws Exception {
+		get(null);
+
+		assertFalse(committedByUpstream);
+	}
+
+	@Test
+	void streamsBodiesLargerThanAnEntryWithoutStoringThem() throws Exception {
+		properties.setMaxEntryBytes(64);
+		body = "x".repeat(1000);
+		MockHttpServletResponse first = get(null);
+		get(null);
+
+		assertEquals(body, first.getContentAsString());
+		assertTrue(committedByUpstream, "oversized responses should stream through");
+		assertEquals(2, upstreamCalls.get());
+	}
+
+	@Test
+	void givesCacheHitsTheCorrelationIdOfTheirOwnRequest() throws Exception {
+		assertEquals("first-request", get(null, "first-request").getHeader("X-Correlation-ID"));
+		MockHttpServletResponse hit = get(null, "second-request");
+
+		assertEquals(1, upstreamCalls.get());
+		assertEquals(List.of("second-request"), hit.getHeaders("X-Correlation-ID"));
+	}
+
+	@Test
+	void variesUpstreamEncodedResponsesOnAcceptEncoding() throws Exception {
+		contentEncoding = "gzip";
+		get(null, null, "gzip");
+		MockHttpServletResponse hit = get(null, null, "gzip");
+
+		assertEquals(1, upstreamCalls.get());
+		assertEquals("Accept-Encoding", hit.getHeader("Vary"));
+
+		contentEncoding = null;
+		MockHttpServletResponse identity = get(null, null, null);
+
+		assertEquals(2, upstreamCalls.get());
+		assertNull(identity.getHeader("Content-Encoding"));
+	}
+}
@@ -0,0 +1,43 @@
+package com.datarango.gateway.compression;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CompressionTest {
+
+	@Test
+	void pooledGzipRoundTripsAcrossReuse() throws Exception {
+		CompressionPools pools = new CompressionPools(64, 6, 4);
+		String body = "{\"items\":[" + "{\"id\":1,\"name\":\"item\"},".repeat(200) + "]}";
+
+		for (int i = 0; i < 3; i++) {
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+			try (PooledGzipOutputStream gzip = new PooledGzipOutputStream(compressed, pools)) {
+				byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+				gzip.write(bytes, 0, 100);
+				gzip.flush();
+				gzip.write(bytes, 100, bytes.length - 100);
+			}
+			try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+				assertEquals(body, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+			}
+		}
+	}
+
+	@Test
+	void negotiatesByQualityPreferringBrotliOnTies() {
+		assertEquals(ContentEncoding.BROTLI, ContentEncoding.negotiate("gzip, deflate, br", true));
+		assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("gzip, deflate, br", false));
+		assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("br;q=0.5, gzip", true));
+		assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("*", false));
+		assertNull(ContentEncoding.negotiate("gzip;q=0, identity", true));
+		assertNull(ContentEncoding.negotiate(null, true));
+	}
+}
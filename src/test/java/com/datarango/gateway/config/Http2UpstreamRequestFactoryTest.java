@@ -0,0 +1,56 @@
+package com.datarango.gateway.config;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Http2UpstreamRequestFactoryTest {
+
+	private HttpServer upstream;
+	private URI uri;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		upstream.createContext("/", exchange -> {
+			exchange.sendResponseHeaders(200, 2);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write("{}".getBytes());
+			}
+		});
+		upstream.start();
+		uri = URI.create("http://127.0.0.1:" + upstream.getAddress().getPort() + "/users");
+	}
+
+	@AfterEach
+	void tearDown() {
+		upstream.stop(0);
+	}
+
+	@Test
+	void holdsAStreamUntilTheResponseIsClosed() throws Exception {
+		HttpClientProperties properties = new HttpClientProperties();
+		properties.setMaxStreamsPerConnection(1);
+		properties.setConnectionRequestTimeout(50);
+		Http2UpstreamRequestFactory factory = new Http2UpstreamRequestFactory(properties);
+
+		ClientHttpResponse first = factory.createRequest(uri, HttpMethod.GET).execute();
+		assertThrows(HttpTimeoutException.class, () -> factory.createRequest(uri, HttpMethod.GET).execute());
+
+		first.close();
+		try (ClientHttpResponse second = factory.createRequest(uri, HttpMethod.GET).execute()) {
+			assertEquals(200, second.getStatusCode().value());
+		}
+	}
+}
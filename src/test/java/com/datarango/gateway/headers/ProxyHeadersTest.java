@@ -0,0 +1,93 @@
+package com.datarango.gateway.headers;
+
+import com.datarango.gateway.routing.Route;
+import com.datarango.gateway.routing.RouteTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProxyHeadersTest {
+
+	private final ProxyHeaders proxyHeaders = new ProxyHeaders(new HeaderProperties());
+
+	private final Route route = new RouteTable(new MockEnvironment()
+			.withProperty("gateway.routes[0].id", "users")
+			.withProperty("gateway.routes[0].prefix", "/api/users")
+			.withProperty("gateway.routes[0].service-id", "user-service")
+			.withProperty("gateway.routes[0].request-headers.add[X-Gateway-Route]", "users")
+			.withProperty("gateway.routes[0].request-headers.remove[0]", "Cookie")
+			.withProperty("gateway.routes[0].response-headers.remove[0]", "Server"))
+			.match("/api/users/42");
+
+	@Test
+	void copiesEndToEndRequestHeadersAndAddsForwarding() {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users/42");
+		request.setRemoteAddr("10.0.0.7");
+		request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+		request.addHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+		request.addHeader(HttpHeaders.HOST, "api.datarango.com");
+		request.addHeader(HttpHeaders.CONNECTION, "keep-alive, X-Debug");
+		request.addHeader("X-Debug", "1");
+		request.addHeader("Keep-Alive", "timeout=5");
+		request.addHeader("Cookie", "session=abc");
+		request.addHeader("X-Forwarded-For", "203.0.113.9");
+		request.addHeader("X-Correlation-ID", "req-123");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		HttpHeaders upstream = new HttpHeaders();
+		proxyHeaders.copyRequestHeaders(request, response, route, upstream);
+
+		assertEquals("Bearer token", upstream.getFirst(HttpHeaders.AUTHORIZATION));
+		assertEquals("application/json", upstream.getFirst(HttpHeaders.CONTENT_TYPE));
+		assertFalse(upstream.containsKey(HttpHeaders.HOST));
+		assertFalse(upstream.containsKey(HttpHeaders.CONNECTION));
+		assertFalse(upstream.containsKey("X-Debug"));
+		assertFalse(upstream.containsKey("Keep-Alive"));
+		assertFalse(upstream.containsKey("Cookie"));
+		assertEquals(List.of("203.0.113.9, 10.0.0.7"), upstream.get("X-Forwarded-For"));
+		assertEquals("http", upstream.getFirst("X-Forwarded-Proto"));
+		assertEquals("api.datarango.com", upstream.getFirst("X-Forwarded-Host"));
+		assertEquals("/api/users", upstream.getFirst("X-Forwarded-Prefix"));
+		assertEquals("users", upstream.getFirst("X-Gateway-Route"));
+		assertEquals(List.of("req-123"), upstream.get("X-Correlation-ID"));
+		assertEquals("req-123", response.getHeader("X-Correlation-ID"));
+	}
+
+	@Test
+	void replacesMalformedCorrelationIds() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/42");
+		request.addHeader("X-Correlation-ID", "bad id\r\n");
+
+		String id = proxyHeaders.correlationId(request);
+
+		assertEquals(32, id.length());
+		assertTrue(ProxyHeaders.isValidCorrelationId(id));
+		assertEquals(id, proxyHeaders.correlationId(request));
+	}
+
+	@Test
+	void filtersUpstreamResponseHeaders() {
+		HttpHeaders upstream = new HttpHeaders();
+		upstream.add(HttpHeaders.CONTENT_TYPE, "application/json");
+		upstream.add(HttpHeaders.TRANSFER_ENCODING, "chunked");
+		upstream.add("Server", "upstream/1.0");
+		upstream.add("X-Total-Count", "3");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		proxyHeaders.copyResponseHeaders(upstream, route, response);
+
+		assertEquals("application/json", response.getHeader(HttpHeaders.CONTENT_TYPE));
+		assertEquals("3", response.getHeader("X-Total-Count"));
+		assertNull(response.getHeader(HttpHeaders.TRANSFER_ENCODING));
+		assertNull(response.getHeader("Server"));
+	}
+}
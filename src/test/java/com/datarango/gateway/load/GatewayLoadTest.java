@@ -0,0 +1,274 @@
+package com.datarango.gateway.load;
+
+import com.datarango.gateway.GatewayApplication;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Open-model load against the full gateway: each route gets requests at a
+ * constant arrival rate whether or not earlier ones have finished, and
+ * latency is measured from the scheduled send time so a stalled gateway shows
+ * up in the tail instead of slowing the load down. Upstreams, Redis and
+ * discovery are all local stand-ins.
+ *
+ * Tune with system properties, e.g.
+ * mvn test -Pload-test -Dtest=GatewayLoadTest -Dload.rate=500 -Dload.core.latency-ms=50
+ *
+ * Results are printed and written to target/load-test-result.json, together
+ * with GC collections, collection time and heap allocated during the measured
+ * run. These cover the whole JVM, stubs and client included, so compare runs
+ * with -Dload.buffer-pool=true and false rather than reading them as absolutes.
+ */
+@Tag("load")
+class GatewayLoadTest {
+
+	private static final String SECRET = "YourSecretKeyShouldBeAtLeast256BitsLongForHS256AlgorithmToWorkProperlyAndSecurely";
+
+	record RouteLoad(String service, String path, UpstreamStub.Behavior behavior) {
+	}
+
+	record RouteResult(String route, long requests, long errors, double rate, double p50Millis, double p99Millis,
+			double p999Millis, double maxMillis) {
+	}
+
+	record GcResult(boolean bufferPool, long collections, double collectionMillis, long allocatedBytes) {
+	}
+
+	@Test
+	void reportsLatencyPercentilesPerRoute() throws Exception {
+		List<RouteLoad> routes = List.of(
+				route("user-service", "/api/users/42", 5, 512),
+				route("core-service", "/api/core/items", 20, 4096),
+				route("streaming-service", "/api/streaming/live", 50, 16384),
+				route("messaging-service", "/api/messaging/inbox", 10, 1024));
+		int rate = Integer.getInteger("load.rate", 200);
+		Duration warmup = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 5));
+		Duration duration = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 30));
+		boolean bufferPool = Boolean.parseBoolean(System.getProperty("load.buffer-pool", "true"));
+
+		Map<String, UpstreamStub> upstreams = new LinkedHashMap<>();
+		try (RedisStub redis = RedisStub.start()) {
+			for (RouteLoad route : routes) {
+				upstreams.put(route.service(), UpstreamStub.start(route.behavior()));
+			}
+			try (ConfigurableApplicationContext context = new SpringApplicationBuilder(GatewayApplication.class)
+					.run(gatewayArgs(upstreams, redis, bufferPool))) {
+				int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+				HttpClient client = HttpClient.newBuilder()
+						.executor(Executors.newVirtualThreadPerTaskExecutor())
+						.build();
+				String token = token();
+
+				run(client, port, token, routes, rate, warmup, false);
+				long[] gcBefore = gcSnapshot();
+				List<RouteResult> results = run(client, port, token, routes, rate, duration, true);
+				long[] gcAfter = gcSnapshot();
+				GcResult gc = new GcResult(bufferPool, gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1],
+						gcAfter[2] - gcBefore[2]);
+
+				write(results, gc);
+				for (RouteResult result : results) {
+					assertEquals(expectedRequests(rate, duration), result.requests(),
+							result.route() + " should complete every scheduled request");
+				}
+			}
+		} finally {
+			upstreams.values().forEach(UpstreamStub::close);
+		}
+	}
+
+	private static RouteLoad route(String service, String path, int latencyMillis, int payloadBytes) {
+		String prefix = "load." + service.substring(0, service.indexOf('-')) + ".";
+		return new RouteLoad(service, path, new UpstreamStub.Behavior(
+				Duration.ofMillis(Integer.getInteger(prefix + "latency-ms", latencyMillis)),
+				Integer.getInteger(prefix + "payload-bytes", payloadBytes),
+				Double.parseDouble(System.getProperty(prefix + "error-rate", "0"))));
+	}
+
+	private static long expectedRequests(int rate, Duration duration) {
+		return rate * duration.toSeconds();
+	}
+
+	private List<RouteResult> run(HttpClient client, int port, String token, List<RouteLoad> routes, int rate,
+			Duration duration, boolean record) throws Exception {
+		long total = rate * duration.toSeconds();
+		long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+		List<Recorder> recorders = new ArrayList<>();
+		// Closing the dispatchers waits for every send to be scheduled, closing
+		// requests then waits for the sends themselves
+		try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor();
+				ExecutorService dispatchers = Executors.newVirtualThreadPerTaskExecutor()) {
+			long start = System.nanoTime();
+			for (RouteLoad route : routes) {
+				Recorder recorder = new Recorder(route.path(), (int) total);
+				recorders.add(recorder);
+				HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + route.path()))
+						.header("Authorization", "Bearer " + token)
+						.timeout(Duration.ofSeconds(30))
+						.GET()
+						.build();
+				dispatchers.submit(() -> {
+					for (long i = 0; i < total; i++) {
+						long scheduled = start + i * intervalNanos;
+						long wait = scheduled - System.nanoTime();
+						if (wait > 0) {
+							LockSupport.parkNanos(wait);
+						}
+						requests.submit(() -> recorder.record(scheduled, send(client, request)));
+					}
+				});
+			}
+		}
+		if (!record) {
+			return List.of();
+		}
+		return recorders.stream().map(recorder -> recorder.result(duration)).toList();
+	}
+
+	private static int send(HttpClient client, HttpRequest request) {
+		try {
+			return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+		} catch (Exception e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Collects latencies into a preallocated array; sorting happens once at the end.
+	 */
+	static class Recorder {
+
+		private final String route;
+		private final long[] latencies;
+		private final AtomicInteger count = new AtomicInteger();
+		private final AtomicLong errors = new AtomicLong();
+
+		Recorder(String route, int capacity) {
+			this.route = route;
+			this.latencies = new long[capacity];
+		}
+
+		void record(long scheduledNanos, int status) {
+			long latency = System.nanoTime() - scheduledNanos;
+			if (status != 200) {
+				errors.incrementAndGet();
+			}
+			int index = count.getAndIncrement();
+			if (index < latencies.length) {
+				latencies[index] = latency;
+			}
+		}
+
+		RouteResult result(Duration duration) {
+			int n = Math.min(count.get(), latencies.length);
+			long[] sorted = Arrays.copyOf(latencies, n);
+			Arrays.sort(sorted);
+			return new RouteResult(route, n, errors.get(), (double) n / duration.toSeconds(),
+					percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+					n > 0 ? sorted[n - 1] / 1e6 : 0);
+		}
+
+		private static double percentile(long[] sorted, double quantile) {
+			if (sorted.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(quantile * sorted.length) - 1;
+			return sorted[Math.max(0, index)] / 1e6;
+		}
+	}
+
+	// Collections, collection time in millis and bytes allocated by all threads so far
+	private static long[] gcSnapshot() {
+		long collections = 0;
+		long millis = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			collections += Math.max(0, collector.getCollectionCount());
+			millis += Math.max(0, collector.getCollectionTime());
+		}
+		long allocated = ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+				.getTotalThreadAllocatedBytes();
+		return new long[] { collections, millis, allocated };
+	}
+
+	private static void write(List<RouteResult> results, GcResult gc) throws Exception {
+		String routes = results.stream()
+				.map(r -> String.format(Locale.ROOT,
+						"{\"route\":\"%s\",\"requests\":%d,\"errors\":%d,\"rate\":%.1f,"
+								+ "\"p50_ms\":%.3f,\"p99_ms\":%.3f,\"p999_ms\":%.3f,\"max_ms\":%.3f}",
+						r.route(), r.requests(), r.errors(), r.rate(), r.p50Millis(), r.p99Millis(), r.p999Millis(),
+						r.maxMillis()))
+				.collect(Collectors.joining(",\n    ", "[\n    ", "\n  ]"));
+		String json = String.format(Locale.ROOT,
+				"{\n  \"gc\": {\"buffer_pool\":%b,\"collections\":%d,\"collection_ms\":%.0f,"
+						+ "\"allocated_bytes\":%d},\n  \"routes\": %s\n}\n",
+				gc.bufferPool(), gc.collections(), gc.collectionMillis(), gc.allocatedBytes(), routes);
+		Path output = Path.of("target", "load-test-result.json");
+		Files.createDirectories(output.getParent());
+		Files.writeString(output, json);
+	}
+
+	private static String token() {
+		return Jwts.builder()
+				.setSubject("load-user")
+				.setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+
+	private static String[] gatewayArgs(Map<String, UpstreamStub> upstreams, RedisStub redis,
+			boolean bufferPool) {
+		List<String> args = new ArrayList<>(List.of(
+				"--server.port=0",
+				"--spring.threads.virtual.enabled=true",
+				"--spring.cloud.discovery.enabled=true",
+				"--spring.cloud.loadbalancer.enabled=true",
+				"--eureka.client.enabled=false",
+				"--redis.host=127.0.0.1",
+				"--redis.port=" + redis.port(),
+				"--gateway.http-client.max-total-connections=2000",
+				"--gateway.http-client.max-connections-per-service=1000",
+				"--gateway.resilience.bulkhead.max-concurrent-calls=1000",
+				"--gateway.resilience.concurrency-limit.enabled=false",
+				"--gateway.access-log.enabled=false",
+				"--gateway.buffer-pool.enabled=" + bufferPool,
+				// Stack capture per buffer would dominate the allocation numbers
+				"--gateway.buffer-pool.leak-detection=false",
+				"--rate-limit.requests-per-minute=100000000",
+				"--logging.level.com.datarango.gateway=WARN",
+				"--jwt.secret=" + SECRET));
+		upstreams.forEach((service, stub) -> args
+				.add("--spring.cloud.discovery.client.simple.instances." + service + "[0].uri=" + stub.uri()));
+		return args.toArray(String[]::new);
+	}
+}
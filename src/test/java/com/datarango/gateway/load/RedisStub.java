@@ -0,0 +1,184 @@
+package com.datarango.gateway.load;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Just enough of a RESP2 server for the gateway: GET/SET style string
+ * commands, SCRIPT LOAD, and EVAL/EVALSHA, which always admit the request so
+ * rate limiting costs a Redis round trip but never rejects. HELLO is refused
+ * so Lettuce falls back to RESP2.
+ */
+class RedisStub implements AutoCloseable {
+
+	private final ServerSocket serverSocket;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+
+	private RedisStub(ServerSocket serverSocket) {
+		this.serverSocket = serverSocket;
+	}
+
+	static RedisStub start() throws IOException {
+		RedisStub stub = new RedisStub(new ServerSocket(0, 1024, InetAddress.getLoopbackAddress()));
+		stub.executor.submit(stub::accept);
+		return stub;
+	}
+
+	int port() {
+		return serverSocket.getLocalPort();
+	}
+
+	private void accept() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				socket.setTcpNoDelay(true);
+				executor.submit(() -> serve(socket));
+			} catch (IOException e) {
+				return;
+			}
+		}
+	}
+
+	private void serve(Socket socket) {
+		try (socket;
+				InputStream in = new BufferedInputStream(socket.getInputStream());
+				OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+			byte[][] command;
+			while ((command = readCommand(in)) != null) {
+				reply(command, out);
+				if (in.available() == 0) {
+					out.flush();
+				}
+			}
+		} catch (IOException e) {
+			// Client went away
+		}
+	}
+
+	private void reply(byte[][] command, OutputStream out) throws IOException {
+		String name = new String(command[0], StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+		switch (name) {
+			case "PING" -> simple(out, "PONG");
+			case "HELLO" -> error(out, "ERR unknown command 'HELLO'");
+			case "CLIENT", "SELECT", "AUTH" -> simple(out, "OK");
+			case "GET" -> bulk(out, values.get(key(command)));
+			case "SET", "SETEX", "PSETEX" -> {
+				values.put(key(command), command[name.equals("SET") ? 2 : 3]);
+				simple(out, "OK");
+			}
+			case "DEL" -> integer(out, values.remove(key(command)) != null ? 1 : 0);
+			case "INCRBY" -> integer(out, incrementBy(key(command), Long.parseLong(text(command[2]))));
+			case "EXPIRE", "PEXPIRE" -> integer(out, 1);
+			case "SCRIPT" -> bulk(out, sha1(command[2]).getBytes(StandardCharsets.US_ASCII));
+			case "EVAL", "EVALSHA" -> {
+				// {allowed, remaining, retry millis} for a fresh window
+				long limit = Long.parseLong(text(command[4]));
+				out.write(("*3\r\n:1\r\n:" + Math.max(0, limit - 1) + "\r\n:0\r\n").getBytes(StandardCharsets.US_ASCII));
+			}
+			default -> error(out, "ERR unknown command '" + name + "'");
+		}
+	}
+
+	private long incrementBy(String key, long delta) {
+		byte[] updated = values.compute(key, (k, current) -> {
+			long value = current != null ? Long.parseLong(text(current)) : 0;
+			return String.valueOf(value + delta).getBytes(StandardCharsets.US_ASCII);
+		});
+		return Long.parseLong(text(updated));
+	}
+
+	private static byte[][] readCommand(InputStream in) throws IOException {
+		int marker = in.read();
+		if (marker == -1) {
+			return null;
+		}
+		if (marker != '*') {
+			throw new IOException("Expected a RESP array");
+		}
+		int count = Integer.parseInt(readLine(in));
+		byte[][] parts = new byte[count][];
+		for (int i = 0; i < count; i++) {
+			if (in.read() != '$') {
+				throw new IOException("Expected a RESP bulk string");
+			}
+			int length = Integer.parseInt(readLine(in));
+			parts[i] = in.readNBytes(length);
+			in.skipNBytes(2);
+		}
+		return parts;
+	}
+
+	private static String readLine(InputStream in) throws IOException {
+		StringBuilder line = new StringBuilder();
+		int b;
+		while ((b = in.read()) != '\r') {
+			if (b == -1) {
+				throw new IOException("Connection closed mid-command");
+			}
+			line.append((char) b);
+		}
+		in.read();
+		return line.toString();
+	}
+
+	private static String key(byte[][] command) {
+		return text(command[1]);
+	}
+
+	private static String text(byte[] bytes) {
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void simple(OutputStream out, String value) throws IOException {
+		out.write(('+' + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private static void error(OutputStream out, String message) throws IOException {
+		out.write(('-' + message + "\r\n").getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private static void integer(OutputStream out, long value) throws IOException {
+		out.write((":" + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private static void bulk(OutputStream out, byte[] value) throws IOException {
+		if (value == null) {
+			out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+			return;
+		}
+		out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+		out.write(value);
+		out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private static String sha1(byte[] script) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(script));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,87 @@
+package com.datarango.gateway.load;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local HTTP upstream that answers every path with a JSON body after a fixed
+ * delay, failing a configurable share of calls with 503. Runs on virtual
+ * threads so the stub itself never limits concurrency.
+ */
+class UpstreamStub implements AutoCloseable {
+
+	private static final byte[] ERROR_BODY = "{\"error\":\"stub failure\"}".getBytes(StandardCharsets.UTF_8);
+
+	/**
+	 * @param payloadBytes approximate body size; anything under 16 bytes sends {@code {}}
+	 * @param errorRate    share of calls answered with 503, from 0 to 1
+	 */
+	record Behavior(Duration delay, int payloadBytes, double errorRate) {
+	}
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+
+	private UpstreamStub(HttpServer server, ExecutorService executor) {
+		this.server = server;
+		this.executor = executor;
+	}
+
+	static UpstreamStub start(Duration delay) throws IOException {
+		return start(new Behavior(delay, 0, 0));
+	}
+
+	static UpstreamStub start(Behavior behavior) throws IOException {
+		byte[] body = payload(behavior.payloadBytes());
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+		ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+		server.setExecutor(executor);
+		server.createContext("/", exchange -> {
+			try {
+				Thread.sleep(behavior.delay().toMillis());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			boolean fail = behavior.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < behavior.errorRate();
+			byte[] response = fail ? ERROR_BODY : body;
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(fail ? 503 : 200, response.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(response);
+			}
+		});
+		server.start();
+		return new UpstreamStub(server, executor);
+	}
+
+	private static byte[] payload(int size) {
+		String prefix = "{\"data\":\"";
+		String suffix = "\"}";
+		int padding = size - prefix.length() - suffix.length();
+		if (padding <= 0) {
+			return "{}".getBytes(StandardCharsets.UTF_8);
+		}
+		char[] data = new char[padding];
+		Arrays.fill(data, 'x');
+		return (prefix + new String(data) + suffix).getBytes(StandardCharsets.UTF_8);
+	}
+
+	String uri() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,150 @@
+package com.datarango.gateway.load;
+
+import com.datarango.gateway.GatewayApplication;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares platform and virtual thread request handling against an upstream
+ * that takes 200ms per call. Tomcat is capped at 50 platform threads, so the
+ * platform run queues once more than 50 calls are in flight.
+ *
+ * Run with: mvn test -Pload-test
+ */
+@Tag("load")
+class VirtualThreadLoadTest {
+
+	private static final String SECRET = "YourSecretKeyShouldBeAtLeast256BitsLongForHS256AlgorithmToWorkProperlyAndSecurely";
+	private static final Duration UPSTREAM_DELAY = Duration.ofMillis(200);
+	private static final int CONCURRENT_CLIENTS = 400;
+	private static final int REQUESTS_PER_CLIENT = 10;
+
+	record LoadResult(String mode, double throughput, long p50Millis, long p99Millis, long errors) {
+	}
+
+	@Test
+	void virtualThreadsRaiseConcurrencyAgainstSlowUpstreams() throws Exception {
+		try (UpstreamStub upstream = UpstreamStub.start(UPSTREAM_DELAY)) {
+			LoadResult platform = run(upstream, false);
+			LoadResult virtual = run(upstream, true);
+
+			assertEquals(0, virtual.errors(), () -> "virtual thread run failed requests: " + virtual);
+			assertTrue(virtual.throughput() > platform.throughput(),
+					() -> "virtual threads should sustain more concurrent slow calls: " + platform + " vs " + virtual);
+			assertTrue(virtual.p99Millis() < platform.p99Millis(),
+					() -> "virtual threads should cut queueing in the p99: " + platform + " vs " + virtual);
+		}
+	}
+
+	private LoadResult run(UpstreamStub upstream, boolean virtualThreads) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(GatewayApplication.class)
+				.run(gatewayArgs(upstream, virtualThreads))) {
+			int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+			URI target = URI.create("http://127.0.0.1:" + port + "/api/core/items");
+			String token = token();
+			HttpClient client = HttpClient.newBuilder()
+					.executor(Executors.newVirtualThreadPerTaskExecutor())
+					.build();
+
+			// Warm up the connection pools, JIT and subscription near-cache
+			send(client, target, token);
+
+			List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+			long start = System.nanoTime();
+			long errors = 0;
+			try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+				List<Future<Long>> futures = new ArrayList<>();
+				for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+					futures.add(clients.submit(() -> {
+						long failed = 0;
+						for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+							long sent = System.nanoTime();
+							int status = send(client, target, token);
+							latencies.add(System.nanoTime() - sent);
+							if (status != 200) {
+								failed++;
+							}
+						}
+						return failed;
+					}));
+				}
+				for (Future<Long> future : futures) {
+					errors += future.get();
+				}
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			List<Long> sorted = new ArrayList<>(latencies);
+			Collections.sort(sorted);
+			return new LoadResult(virtualThreads ? "virtual" : "platform",
+					sorted.size() / seconds,
+					percentile(sorted, 0.50),
+					percentile(sorted, 0.99),
+					errors);
+		}
+	}
+
+	private static int send(HttpClient client, URI target, String token) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(target)
+				.header("Authorization", "Bearer " + token)
+				.timeout(Duration.ofSeconds(60))
+				.GET()
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+
+	private static long percentile(List<Long> sorted, double quantile) {
+		int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+		return sorted.get(Math.max(0, index)) / 1_000_000;
+	}
+
+	private static String token() {
+		return Jwts.builder()
+				.setSubject("load-user")
+				.setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+
+	private static String[] gatewayArgs(UpstreamStub upstream, boolean virtualThreads) {
+		return new String[] {
+				"--server.port=0",
+				"--server.tomcat.threads.max=50",
+				"--spring.threads.virtual.enabled=" + virtualThreads,
+				"--spring.cloud.discovery.enabled=true",
+				"--spring.cloud.loadbalancer.enabled=true",
+				"--spring.cloud.discovery.client.simple.instances.core-service[0].uri=" + upstream.uri(),
+				"--spring.cloud.discovery.client.simple.instances.user-service[0].uri=" + upstream.uri(),
+				"--eureka.client.enabled=false",
+				"--gateway.http-client.max-total-connections=2000",
+				"--gateway.http-client.max-connections-per-service=1000",
+				"--gateway.resilience.bulkhead.max-concurrent-calls=1000",
+				"--gateway.resilience.concurrency-limit.enabled=false",
+				"--rate-limit.local.enabled=true",
+				"--rate-limit.requests-per-minute=100000000",
+				"--logging.level.com.datarango.gateway=WARN",
+				"--jwt.secret=" + SECRET,
+		};
+	}
+}
@@ -0,0 +1,94 @@
+package com.datarango.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class P2cLoadBalancerTest {
+
+	private static final String SERVICE = "core-service";
+	private static final long FAST = 10_000_000;
+	private static final long SLOW = 200_000_000;
+
+	private final ServiceInstance a = new DefaultServiceInstance("a", SERVICE, "10.0.0.1", 8080, false);
+	private final ServiceInstance b = new DefaultServiceInstance("b", SERVICE, "10.0.0.2", 8080, false);
+	private final ServiceInstance c = new DefaultServiceInstance("c", SERVICE, "10.0.0.3", 8080, false);
+
+	private final InstanceStatsRegistry stats = new InstanceStatsRegistry(new BalancerProperties(),
+			new SimpleMeterRegistry());
+	private final P2cLoadBalancer balancer = balancer(a, b, c);
+
+	private P2cLoadBalancer balancer(ServiceInstance... instances) {
+		ServiceInstanceListSupplier supplier = ServiceInstanceListSuppliers.from(SERVICE, instances);
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("supplier", supplier));
+		return new P2cLoadBalancer(beanFactory.getBeanProvider(ServiceInstanceListSupplier.class), SERVICE, stats);
+	}
+
+	private void sample(ServiceInstance instance, long rttNanos, boolean failed) {
+		stats.onStart(instance);
+		stats.onComplete(instance, rttNanos, failed);
+	}
+
+	private Map<String, Integer> distribution(int picks) {
+		Map<String, Integer> counts = new HashMap<>();
+		for (int i = 0; i < picks; i++) {
+			ServiceInstance chosen = balancer.choose().block().getServer();
+			counts.merge(chosen.getInstanceId(), 1, Integer::sum);
+		}
+		return counts;
+	}
+
+	@Test
+	void avoidsTheSlowInstance() {
+		sample(a, SLOW, false);
+		sample(b, FAST, false);
+		sample(c, FAST, false);
+
+		Map<String, Integer> counts = distribution(1000);
+		assertEquals(0, counts.getOrDefault("a", 0));
+		assertTrue(counts.get("b") > 300 && counts.get("c") > 300, counts.toString());
+	}
+
+	@Test
+	void prefersInstancesWithFewerOutstandingRequests() {
+		sample(a, FAST, false);
+		sample(b, FAST, false);
+		sample(c, FAST, false);
+		for (int i = 0; i < 10; i++) {
+			stats.onStart(b);
+		}
+
+		Map<String, Integer> counts = distribution(1000);
+		assertEquals(0, counts.getOrDefault("b", 0));
+	}
+
+	@Test
+	void ejectsInstancesThatKeepFailing() {
+		for (int i = 0; i < 5; i++) {
+			sample(a, FAST, true);
+		}
+
+		assertEquals(0, distribution(1000).getOrDefault("a", 0));
+	}
+
+	@Test
+	void fallsBackToEjectedInstancesWhenNoneAreHealthy() {
+		P2cLoadBalancer single = balancer(a);
+		for (int i = 0; i < 5; i++) {
+			sample(a, FAST, true);
+		}
+
+		assertNotNull(single.choose().block().getServer());
+	}
+}
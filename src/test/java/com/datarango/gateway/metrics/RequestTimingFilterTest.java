@@ -0,0 +1,33 @@
+package com.datarango.gateway.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestTimingFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final RequestTimingFilter filter = new RequestTimingFilter(new TimingProperties(), meterRegistry);
+
+	private void request(String method) throws Exception {
+		filter.doFilter(new MockHttpServletRequest(method, "/api/core/items"), new MockHttpServletResponse(),
+				new MockFilterChain());
+	}
+
+	@Test
+	void tagsUnknownMethodsAsOther() throws Exception {
+		request("GET");
+		request("PROPFIND");
+		request("X-RANDOM-1");
+		request("get");
+
+		assertEquals(1, meterRegistry.get("gateway.requests").tag("method", "GET").timer().count());
+		assertEquals(3, meterRegistry.get("gateway.requests").tag("method", "OTHER").timer().count());
+		assertEquals(2, meterRegistry.get("gateway.requests").timers().size());
+	}
+}
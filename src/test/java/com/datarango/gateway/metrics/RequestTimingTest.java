@@ -0,0 +1,42 @@
+package com.datarango.gateway.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestTimingTest {
+
+	private static final long MS = 1_000_000;
+
+	@Test
+	void splitsGatewayTimeFromUpstreamTime() {
+		RequestTiming timing = new RequestTiming(0);
+		timing.add(TimingPhase.JWT, 2 * MS);
+		timing.upstreamStarted(5 * MS);
+		timing.add(TimingPhase.UPSTREAM_CONNECT, 1 * MS);
+		timing.add(TimingPhase.UPSTREAM_FIRST_BYTE, 30 * MS);
+
+		assertEquals(40 * MS, timing.complete(40 * MS));
+		assertEquals(5 * MS, timing.get(TimingPhase.FILTERS));
+		assertEquals(9 * MS, timing.get(TimingPhase.GATEWAY));
+	}
+
+	@Test
+	void requestsWithoutUpstreamCallSpendEverythingInFilters() {
+		RequestTiming timing = new RequestTiming(0);
+		timing.complete(3 * MS);
+		assertEquals(3 * MS, timing.get(TimingPhase.FILTERS));
+		assertEquals(3 * MS, timing.get(TimingPhase.GATEWAY));
+	}
+
+	@Test
+	void formatsServerTimingInMilliseconds() {
+		RequestTiming timing = new RequestTiming(0);
+		timing.add(TimingPhase.REDIS, 1_234_567);
+		timing.upstreamStarted(2 * MS);
+		timing.add(TimingPhase.UPSTREAM_FIRST_BYTE, 10_005_000);
+
+		assertEquals("filters;dur=2.000, redis;dur=1.234, upstream_first_byte;dur=10.005, gateway;dur=1.995, "
+				+ "total;dur=12.000", timing.serverTiming(12 * MS));
+	}
+}
@@ -0,0 +1,74 @@
+package com.datarango.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LocalRateLimiterTest {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void keepsLimitingWhenRedisIsDown() throws Exception {
+		RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+		when(redisTemplate.executePipelined(any(RedisCallback.class)))
+				.thenThrow(new RedisConnectionFailureException("down"));
+
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.getLocal().setNodes(1);
+		properties.getLocal().setSyncIntervalMillis(10);
+		LocalRateLimiter limiter = new LocalRateLimiter(redisTemplate, mock(DiscoveryClient.class), properties,
+				"api-gateway");
+		RateLimitPolicy policy = new RateLimitPolicy("/api/users", RateLimitAlgorithm.SLIDING_WINDOW_COUNTER, 5,
+				Duration.ofMinutes(1), 5);
+
+		try {
+			for (int i = 0; i < 5; i++) {
+				assertTrue(limiter.tryAcquire("10.0.0.1", policy).allowed());
+			}
+			limiter.sync();
+			assertFalse(limiter.tryAcquire("10.0.0.1", policy).allowed());
+			assertTrue(limiter.tryAcquire("10.0.0.2", policy).allowed());
+		} finally {
+			limiter.destroy();
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void admitsOnlyItsShareOfTheLimitWhileRedisIsDown() throws Exception {
+		RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+		when(redisTemplate.executePipelined(any(RedisCallback.class)))
+				.thenThrow(new RedisConnectionFailureException("down"));
+
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.getLocal().setNodes(2);
+		properties.getLocal().setSyncIntervalMillis(10);
+		LocalRateLimiter limiter = new LocalRateLimiter(redisTemplate, mock(DiscoveryClient.class), properties,
+				"api-gateway");
+		RateLimitPolicy policy = new RateLimitPolicy("/api/users", RateLimitAlgorithm.SLIDING_WINDOW_COUNTER, 10,
+				Duration.ofMinutes(1), 10);
+
+		try {
+			assertTrue(limiter.tryAcquire("10.0.0.1", policy).allowed());
+			limiter.sync();
+			for (int i = 0; i < 4; i++) {
+				assertTrue(limiter.tryAcquire("10.0.0.1", policy).allowed());
+			}
+			RateLimitDecision rejected = limiter.tryAcquire("10.0.0.1", policy);
+			assertFalse(rejected.allowed());
+			assertTrue(rejected.retryAfterMillis() > properties.getLocal().getSyncIntervalMillis());
+		} finally {
+			limiter.destroy();
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package com.datarango.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimitPoliciesTest {
+
+	private RateLimitPolicies policies() {
+		RateLimitProperties.Route users = new RateLimitProperties.Route();
+		users.setPrefix("/api/users");
+		users.setRequestsPerMinute(100);
+
+		RateLimitProperties.Route streaming = new RateLimitProperties.Route();
+		streaming.setPrefix("/api/streaming");
+		streaming.setAlgorithm(RateLimitAlgorithm.TOKEN_BUCKET);
+		streaming.setBurst(20);
+
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setRoutes(List.of(users, streaming));
+		return new RateLimitPolicies(properties);
+	}
+
+	@Test
+	void matchesRoutePrefixOnSegmentBoundary() {
+		RateLimitPolicies policies = policies();
+		assertEquals("/api/users", policies.resolve("/api/users/42").name());
+		assertEquals("/api/users", policies.resolve("/api/users").name());
+		assertEquals("default", policies.resolve("/api/usersettings").name());
+	}
+
+	@Test
+	void routeSettingsFallBackToDefaults() {
+		RateLimitPolicies policies = policies();
+		RateLimitPolicy users = policies.resolve("/api/users/1");
+		assertEquals(RateLimitAlgorithm.SLIDING_WINDOW_COUNTER, users.algorithm());
+		assertEquals(100, users.burst());
+
+		RateLimitPolicy streaming = policies.resolve("/api/streaming/live");
+		assertEquals(RateLimitAlgorithm.TOKEN_BUCKET, streaming.algorithm());
+		assertEquals(60, streaming.limit());
+		assertEquals(20, streaming.burst());
+	}
+}
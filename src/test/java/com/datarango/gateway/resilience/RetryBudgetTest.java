@@ -0,0 +1,28 @@
+package com.datarango.gateway.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBudgetTest {
+
+	@Test
+	void allowsTheInitialBurstThenOnlyTheConfiguredRatio() {
+		RetryBudget budget = new RetryBudget(0.1, 5);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(budget.tryWithdraw());
+		}
+		assertFalse(budget.tryWithdraw());
+
+		int retries = 0;
+		for (int call = 0; call < 1000; call++) {
+			budget.deposit();
+			if (budget.tryWithdraw()) {
+				retries++;
+			}
+		}
+		assertEquals(100, retries);
+	}
+}
@@ -0,0 +1,42 @@
+package com.datarango.gateway.resilience;
+
+import com.datarango.gateway.exception.ServiceUnavailableException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UpstreamGuardTest {
+
+	private static UpstreamGuard guard() {
+		ResilienceProperties properties = new ResilienceProperties();
+		properties.getCircuitBreaker().setMinimumCalls(5);
+		properties.getConcurrencyLimit().setEnabled(false);
+		return new UpstreamGuard(properties, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void opensTheBreakerOnFailedResultsThatDoNotThrow() {
+		UpstreamGuard guard = guard();
+		for (int i = 0; i < 5; i++) {
+			assertEquals(503, guard.call("streaming-service", () -> 503, status -> status >= 500));
+		}
+
+		assertEquals(CircuitBreaker.State.OPEN, guard.stateOf("streaming-service"));
+		assertThrows(ServiceUnavailableException.class,
+				() -> guard.call("streaming-service", () -> 200, status -> status >= 500));
+	}
+
+	@Test
+	void keepsTheBreakerClosedForSuccessfulAndClientErrorResults() {
+		UpstreamGuard guard = guard();
+		for (int i = 0; i < 10; i++) {
+			int status = i % 2 == 0 ? 200 : 404;
+			guard.call("streaming-service", () -> status, result -> result >= 500);
+		}
+
+		assertEquals(CircuitBreaker.State.CLOSED, guard.stateOf("streaming-service"));
+	}
+}
@@ -0,0 +1,124 @@
+package com.datarango.gateway.resilience;
+
+import com.datarango.gateway.routing.Route;
+import com.datarango.gateway.routing.RouteTable;
+import com.datarango.gateway.routing.UpstreamRouteContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamRetryExecutorTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final UpstreamRetryExecutor executor = new UpstreamRetryExecutor(properties(), meterRegistry, false);
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	private static ResilienceProperties properties() {
+		ResilienceProperties properties = new ResilienceProperties();
+		properties.getHedge().setMinSamples(64);
+		properties.getHedge().setMinDelayMillis(20);
+		return properties;
+	}
+
+	@AfterEach
+	void tearDown() {
+		UpstreamRouteContext.clear();
+		executor.destroy();
+	}
+
+	@Test
+	void retriesIdempotentCallsThatFailedBeforeAResponse() {
+		String body = executor.execute("core-service", HttpMethod.GET, () -> {
+			if (calls.incrementAndGet() == 1) {
+				throw new ResourceAccessException("refused", new ConnectException("Connection refused"));
+			}
+			return "ok";
+		});
+
+		assertEquals("ok", body);
+		assertEquals(2, calls.get());
+		assertEquals(1, meterRegistry.counter("gateway.upstream.retries", "service", "core-service").count());
+	}
+
+	@Test
+	void doesNotRetryReadTimeouts() {
+		assertThrows(ResourceAccessException.class, () -> executor.execute("core-service", HttpMethod.GET, () -> {
+			calls.incrementAndGet();
+			throw new ResourceAccessException("timed out", new SocketTimeoutException("Read timed out"));
+		}));
+
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	void doesNotRetryNonIdempotentMethods() {
+		assertThrows(ResourceAccessException.class, () -> executor.execute("core-service", HttpMethod.POST, () -> {
+			calls.incrementAndGet();
+			throw new ResourceAccessException("refused", new ConnectException("Connection refused"));
+		}));
+
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	void hedgesSlowGetsOnceTheRouteHasLatencyHistory() throws InterruptedException {
+		Route route = new RouteTable(new MockEnvironment()
+				.withProperty("gateway.routes[0].prefix", "/api/core")
+				.withProperty("gateway.routes[0].service-id", "core-service")
+				.withProperty("gateway.routes[0].filters[0]", "hedge"))
+				.match("/api/core/items");
+		UpstreamRouteContext.set(route);
+		for (int i = 0; i < 64; i++) {
+			executor.execute("core-service", HttpMethod.GET, () -> "warm");
+		}
+
+		CountDownLatch release = new CountDownLatch(1);
+		long start = System.nanoTime();
+		String body = executor.execute("core-service", HttpMethod.GET, () -> {
+			if (calls.incrementAndGet() == 1) {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return "primary";
+			}
+			return "hedge";
+		});
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		release.countDown();
+
+		assertEquals("hedge", body);
+		assertEquals(2, calls.get());
+		assertTrue(elapsedMillis < 2000, "hedge answered after " + elapsedMillis + " ms");
+		assertEquals(1, meterRegistry.counter("gateway.upstream.hedges", "service", "core-service").count());
+	}
+
+	@Test
+	void latencyTrackerReportsTheQuantileOnlyAfterEnoughSamples() {
+		LatencyTracker tracker = new LatencyTracker(0.5);
+		for (int i = 1; i <= 63; i++) {
+			tracker.record(i);
+		}
+		assertEquals(0, tracker.quantileNanos(10));
+
+		tracker.record(64);
+		assertEquals(32, tracker.quantileNanos(10));
+		assertEquals(0, tracker.quantileNanos(100));
+	}
+}
@@ -0,0 +1,66 @@
+package com.datarango.gateway.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VegasLimitTest {
+
+	private static final long RTT = 10_000_000;
+
+	@Test
+	void growsWhileLatencyStaysAtNoLoadLevel() {
+		VegasLimit limit = new VegasLimit(20, 4, 500, 1.0);
+		limit.onSample(RTT, 20, false);
+		for (int i = 0; i < 50; i++) {
+			limit.onSample(RTT, limit.getLimit(), false);
+		}
+		assertTrue(limit.getLimit() > 20, "limit should grow, was " + limit.getLimit());
+	}
+
+	@Test
+	void shrinksWhenLatencyQueuesUp() {
+		VegasLimit limit = new VegasLimit(100, 4, 500, 1.0);
+		limit.onSample(RTT, 100, false);
+		for (int i = 0; i < 50; i++) {
+			limit.onSample(RTT * 3, limit.getLimit(), false);
+		}
+		assertTrue(limit.getLimit() < 100, "limit should shrink, was " + limit.getLimit());
+	}
+
+	@Test
+	void ignoresSamplesWhenMostlyIdle() {
+		VegasLimit limit = new VegasLimit(100, 4, 500, 1.0);
+		limit.onSample(RTT, 100, false);
+		limit.onSample(RTT * 3, 10, false);
+		assertEquals(100, limit.getLimit());
+	}
+
+	@Test
+	void shedsAboveTheLimit() {
+		VegasLimit limit = new VegasLimit(4, 4, 500, 1.0);
+		for (int i = 1; i <= 4; i++) {
+			assertEquals(i, limit.tryAcquire());
+		}
+		assertEquals(0, limit.tryAcquire());
+		assertEquals(4, limit.getInFlight());
+	}
+
+	@Test
+	void judgesLoadByTheInFlightCountWhenTheCallStarted() {
+		VegasLimit limit = new VegasLimit(100, 4, 500, 1.0);
+		limit.onSample(RTT, 100, false);
+		int inFlightAtStart = limit.tryAcquire();
+		for (int i = 0; i < 59; i++) {
+			limit.tryAcquire();
+		}
+
+		// Started alone, so its latency says nothing about the later crowd
+		limit.release(inFlightAtStart, RTT * 3, false);
+
+		assertEquals(1, inFlightAtStart);
+		assertEquals(100, limit.getLimit());
+		assertEquals(59, limit.getInFlight());
+	}
+}
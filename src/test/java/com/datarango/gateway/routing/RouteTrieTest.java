@@ -0,0 +1,59 @@
+package com.datarango.gateway.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RouteTrieTest {
+
+	private static Route route(String prefix, String serviceId) {
+		RouteDefinition definition = new RouteDefinition();
+		definition.setPrefix(prefix);
+		definition.setServiceId(serviceId);
+		return Route.compile(definition);
+	}
+
+	private final RouteTrie trie = RouteTrie.compile(List.of(
+			route("/api/users", "user-service"),
+			route("/api/users/admin/", "admin-service"),
+			route("/api/core", "core-service")));
+
+	@Test
+	void matchesLongestPrefixOnSegmentBoundary() {
+		assertEquals("user-service", trie.match("/api/users/42").serviceId());
+		assertEquals("user-service", trie.match("/api/users").serviceId());
+		assertEquals("admin-service", trie.match("/api/users/admin/roles").serviceId());
+		assertEquals("user-service", trie.match("/api/users/administrators").serviceId());
+		assertNull(trie.match("/api/usersx"));
+		assertNull(trie.match("/api/other"));
+	}
+
+	@Test
+	void stripsOnlyTheLeadingPrefix() {
+		Route core = trie.match("/api/core/items/api/core");
+		assertEquals("/items/api/core", core.endpoint("/api/core/items/api/core"));
+		assertEquals("/", core.endpoint("/api/core"));
+	}
+
+	@Test
+	void replacesStrippedPrefixWithUpstreamPrefix() {
+		RouteDefinition definition = new RouteDefinition();
+		definition.setPrefix("/api/billing");
+		definition.setServiceId("billing-service");
+		definition.setUpstreamPrefix("/v1/");
+		Route billing = Route.compile(definition);
+		assertEquals("/v1/invoices/7", billing.endpoint("/api/billing/invoices/7"));
+		assertEquals("/v1", billing.endpoint("/api/billing"));
+	}
+
+	@Test
+	void rejectsDuplicatePrefixes() {
+		assertThrows(IllegalArgumentException.class, () -> RouteTrie.compile(List.of(
+				route("/api/core", "core-service"),
+				route("/api/core/", "other-service"))));
+	}
+}
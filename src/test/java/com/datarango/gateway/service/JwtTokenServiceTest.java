@@ -0,0 +1,50 @@
+package com.datarango.gateway.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenServiceTest {
+
+	private static final String SECRET = "YourSecretKeyShouldBeAtLeast256BitsLongForHS256AlgorithmToWorkProperlyAndSecurely";
+
+	private final JwtTokenService service = new JwtTokenService(SECRET, 100, 300);
+
+	private String token(String subject, long ttlMillis) {
+		return Jwts.builder()
+				.setSubject(subject)
+				.setExpiration(new Date(System.currentTimeMillis() + ttlMillis))
+				.signWith(service.getSigningKey())
+				.compact();
+	}
+
+	@Test
+	void repeatTokenIsServedFromCache() {
+		String token = token("user-1", 60_000);
+		Claims first = service.verify(token);
+		Claims second = service.verify(token);
+		assertNotNull(first);
+		assertSame(first, second);
+		assertEquals("user-1", first.getSubject());
+	}
+
+	@Test
+	void invalidTokenIsRejected() {
+		assertNull(service.verify("not-a-jwt"));
+		assertNull(service.verify(token("user-1", -60_000)));
+	}
+
+	@Test
+	void claimsAreMemoisedOnTheRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Authorization", "Bearer " + token("user-2", 60_000));
+		Claims claims = service.resolveClaims(request);
+		assertSame(claims, request.getAttribute(JwtTokenService.CLAIMS_ATTRIBUTE));
+		assertSame(claims, service.resolveClaims(request));
+	}
+}
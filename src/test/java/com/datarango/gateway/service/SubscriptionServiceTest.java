@@ -0,0 +1,120 @@
+package com.datarango.gateway.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SubscriptionServiceTest {
+
+	@SuppressWarnings("unchecked")
+	private final RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+
+	@SuppressWarnings("unchecked")
+	private final ValueOperations<String, String> values = mock(ValueOperations.class);
+
+	private final EurekaMicroserviceClient client = mock(EurekaMicroserviceClient.class);
+
+	private SubscriptionService service;
+
+	private SubscriptionService service(long refreshAfterSeconds) {
+		service = new SubscriptionService(redisTemplate, client, new SimpleMeterRegistry(), 100,
+				refreshAfterSeconds, 1, 5000, false);
+		return service;
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (service != null) {
+			service.destroy();
+		}
+	}
+
+	@Test
+	void servesRepeatLookupsFromTheNearCache() {
+		when(redisTemplate.opsForValue()).thenReturn(values);
+		when(values.get("subscription:active:user-1")).thenReturn("true");
+		SubscriptionService service = service(45);
+
+		assertTrue(service.hasActiveSubscription("user-1"));
+		assertTrue(service.hasActiveSubscription("user-1"));
+
+		verify(values, times(1)).get("subscription:active:user-1");
+		verify(client, never()).callService(anyString(), anyString(), any(), any(), any());
+	}
+
+	@Test
+	void servesTheOldValueWhileAnEntryReloadsInTheBackground() throws InterruptedException {
+		CountDownLatch reloadStarted = new CountDownLatch(1);
+		CountDownLatch releaseReload = new CountDownLatch(1);
+		AtomicInteger loads = new AtomicInteger();
+		when(redisTemplate.opsForValue()).thenReturn(values);
+		when(values.get("subscription:active:user-1")).thenAnswer(invocation -> {
+			if (loads.incrementAndGet() == 1) {
+				return "true";
+			}
+			reloadStarted.countDown();
+			releaseReload.await(5, TimeUnit.SECONDS);
+			return "false";
+		});
+		SubscriptionService service = service(1);
+
+		assertTrue(service.hasActiveSubscription("user-1"));
+		Thread.sleep(1100);
+
+		assertTrue(service.hasActiveSubscription("user-1"));
+		assertTrue(reloadStarted.await(5, TimeUnit.SECONDS));
+		assertTrue(service.hasActiveSubscription("user-1"));
+
+		releaseReload.countDown();
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (service.hasActiveSubscription("user-1") && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertFalse(service.hasActiveSubscription("user-1"));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void fallsBackToUserServiceWhenRedisIsDown() {
+		when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("Connection refused"));
+		when(client.callService(eq("user-service"), eq("/users/user-1"), eq(HttpMethod.GET), isNull(),
+				eq(Map.class)))
+				.thenAnswer(invocation -> ResponseEntity.ok(Map.of("subscriptionId", "sub-1")));
+		when(client.callService(eq("user-service"), eq("/users/subscriptions/sub-1"), eq(HttpMethod.GET), isNull(),
+				eq(Map.class)))
+				.thenAnswer(invocation -> ResponseEntity.ok(
+						Map.of("expiryDate", LocalDateTime.now().plusDays(1).toString())));
+		SubscriptionService service = service(45);
+
+		assertTrue(service.hasActiveSubscription("user-1"));
+		assertTrue(service.hasActiveSubscription("user-1"));
+
+		verify(client, times(1)).callService(eq("user-service"), eq("/users/user-1"), eq(HttpMethod.GET), isNull(),
+				eq(Map.class));
+	}
+}